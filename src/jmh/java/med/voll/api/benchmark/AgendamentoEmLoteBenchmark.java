@@ -0,0 +1,138 @@
+package med.voll.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.DadosCadastroPaciente;
+import med.voll.api.domain.paciente.Paciente;
+import med.voll.api.domain.paciente.PacienteRepository;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.security.TokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o agendamento de {@code consultas} consultas com um único {@code POST /consultas/lote} e com o mesmo
+ * número de {@code POST /consultas} individuais, com a aplicação completa sobre o MySQL do Testcontainers. Cada
+ * chamada agenda um dia novo, então as duas variantes passam pelas mesmas validações sem conflito de horário.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AgendamentoEmLoteBenchmark {
+
+    private static final int HORARIOS_POR_DIA = 12;
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    @Param({"50"})
+    private int consultas;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private ObjectMapper objectMapper;
+    private String url;
+    private String token;
+    private final List<Long> medicos = new ArrayList<>();
+    private final List<Long> pacientes = new ArrayList<>();
+    private LocalDate dia;
+
+    @Setup
+    public void setUp() {
+        contexto = AplicacaoComMySQL.iniciar();
+
+        var usuario = contexto.getBean(UsuarioRepository.class).save(new Usuario(null, "benchmark@voll.med",
+                contexto.getBean(PasswordEncoder.class).encode("123456")));
+        token = contexto.getBean(TokenService.class).gerarToken(usuario);
+
+        var endereco = new DadosEndereco("Rua das Flores", "Bairro Exemplo", "01000000",
+                "São Paulo", "SP", "Apto 123", "123");
+        var medicoRepository = contexto.getBean(MedicoRepository.class);
+        for (var i = 0; i < Math.ceilDiv(consultas, HORARIOS_POR_DIA); i++) {
+            medicos.add(medicoRepository.save(new Medico(new DadosCadastroMedico("Médico " + i,
+                    "medico" + i + ".lote@voll.med", "11999999999", "%06d".formatted(i),
+                    Especialidade.CARDIOLOGIA, endereco))).getId());
+        }
+        var pacienteRepository = contexto.getBean(PacienteRepository.class);
+        for (var i = 0; i < consultas; i++) {
+            pacientes.add(pacienteRepository.save(new Paciente(new DadosCadastroPaciente("Paciente " + i,
+                    "paciente" + i + ".lote@voll.med", "11988888888", "000.000.%03d-00".formatted(i),
+                    endereco))).getId());
+        }
+
+        cliente = HttpClient.newHttpClient();
+        objectMapper = new ObjectMapper();
+        url = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        dia = LocalDate.now().plusDays(7);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public long agendarEmLote() throws Exception {
+        var resposta = enviar("/consultas/lote", Map.of("consultas", itensDoProximoDia()));
+        var rejeitadas = objectMapper.readTree(resposta).get("rejeitadas").asLong();
+        if (rejeitadas > 0) {
+            throw new IllegalStateException("Lote com consultas rejeitadas: " + resposta);
+        }
+        return resposta.length();
+    }
+
+    @Benchmark
+    public long agendarUmaPorRequest() throws Exception {
+        var tamanho = 0L;
+        for (var item : itensDoProximoDia()) {
+            tamanho += enviar("/consultas", item).length();
+        }
+        return tamanho;
+    }
+
+    private List<Map<String, Object>> itensDoProximoDia() {
+        dia = dia.plusDays(dia.getDayOfWeek() == DayOfWeek.SATURDAY ? 2 : 1);
+        var itens = new ArrayList<Map<String, Object>>(consultas);
+        for (var i = 0; i < consultas; i++) {
+            var data = dia.atTime(7 + i / medicos.size(), 0);
+            itens.add(Map.of(
+                    "idMedico", medicos.get(i % medicos.size()),
+                    "idPaciente", pacientes.get(i),
+                    "data", data.format(FORMATO_DATA)));
+        }
+        return itens;
+    }
+
+    private String enviar(String caminho, Object corpo) throws Exception {
+        var requisicao = HttpRequest.newBuilder(URI.create(url + caminho))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(corpo)))
+                .build();
+        var resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException(caminho + " respondeu " + resposta.statusCode() + ": " + resposta.body());
+        }
+        return resposta.body();
+    }
+
+}
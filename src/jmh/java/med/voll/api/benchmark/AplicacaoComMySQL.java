@@ -0,0 +1,39 @@
+package med.voll.api.benchmark;
+
+import med.voll.api.ApiApplication;
+import med.voll.api.integration.MySQLTestContainer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sobe a aplicação completa, com o perfil de teste, sobre o MySQL do Testcontainers para os benchmarks que
+ * precisam do banco. O SQL no log, as estatísticas do Hibernate e o monitor de SQL ficam desligados para não
+ * distorcer as medições.
+ */
+final class AplicacaoComMySQL {
+
+    private AplicacaoComMySQL() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String... propriedades) {
+        var mysql = MySQLTestContainer.getInstance();
+        var jdbcUrl = mysql.getJdbcUrl();
+        var todas = new ArrayList<>(List.of(
+                "spring.datasource.url=" + jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true",
+                "spring.datasource.username=" + mysql.getUsername(),
+                "spring.datasource.password=" + mysql.getPassword(),
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                "api.outbox.despacho.habilitado=false",
+                "api.sql.monitor.habilitado=false",
+                "server.port=0"));
+        todas.addAll(List.of(propriedades));
+        return new SpringApplicationBuilder(ApiApplication.class)
+                .profiles("test")
+                .properties(todas.toArray(String[]::new))
+                .run();
+    }
+}
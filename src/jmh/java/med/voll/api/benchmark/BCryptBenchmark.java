@@ -0,0 +1,50 @@
+package med.voll.api.benchmark;
+
+import med.voll.api.infra.security.SecurityConfigurations;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o {@code matches} do mesmo {@link PasswordEncoder} que a aplicação cria. O custo {@code configurado} é lido
+ * da propriedade usada pelo bean (por variável de ambiente ou {@code -D}, com o mesmo padrão), e os demais valores
+ * servem de comparação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+
+    private static final String CONFIGURADO = "configurado";
+
+    @Param({CONFIGURADO, "12"})
+    private String custo;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new SecurityConfigurations().passwordEncoder(resolverCusto());
+        hash = encoder.encode("123456");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("123456", hash);
+    }
+
+    private int resolverCusto() {
+        if (!CONFIGURADO.equals(custo)) {
+            return Integer.parseInt(custo);
+        }
+        return new StandardEnvironment().getProperty(SecurityConfigurations.PROPRIEDADE_CUSTO_BCRYPT, Integer.class,
+                SecurityConfigurations.CUSTO_BCRYPT_PADRAO);
+    }
+
+}
@@ -0,0 +1,80 @@
+package med.voll.api.benchmark;
+
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.DadosListagemMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara uma página da listagem de médicos carregada como entidades e convertida para
+ * {@link DadosListagemMedico} com a mesma página lida direto pela projeção {@code listarAtivos}. As duas
+ * variantes rodam em uma transação somente leitura, como no controller. A alocação por operação aparece nas
+ * métricas {@code gc.alloc.rate.norm} do profiler {@code gc}, ligado por padrão no perfil {@code benchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListagemMedicosBenchmark {
+
+    @Param({"1000"})
+    private int medicos;
+
+    @Param({"100"})
+    private int tamanhoPagina;
+
+    private ConfigurableApplicationContext contexto;
+    private MedicoRepository repository;
+    private TransactionTemplate transacao;
+    private PageRequest pagina;
+
+    @Setup
+    public void setUp() {
+        contexto = AplicacaoComMySQL.iniciar();
+        repository = contexto.getBean(MedicoRepository.class);
+
+        var endereco = new DadosEndereco("Rua das Flores", "Bairro Exemplo", "01000000",
+                "São Paulo", "SP", "Apto 123", "123");
+        var cadastros = new ArrayList<Medico>(medicos);
+        for (var i = 0; i < medicos; i++) {
+            cadastros.add(new Medico(new DadosCadastroMedico("Médico " + i, "medico" + i + ".listagem@voll.med",
+                    "11999999999", "%06d".formatted(i), Especialidade.values()[i % Especialidade.values().length],
+                    endereco)));
+        }
+        repository.saveAll(cadastros);
+
+        transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        transacao.setReadOnly(true);
+        pagina = PageRequest.of(0, tamanhoPagina, Sort.by("nome"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Page<DadosListagemMedico> listarEntidades() {
+        return transacao.execute(status -> repository.findAllByAtivoTrue(pagina).map(DadosListagemMedico::new));
+    }
+
+    @Benchmark
+    public Page<DadosListagemMedico> listarProjecao() {
+        return transacao.execute(status -> repository.listarAtivos(pagina));
+    }
+
+}
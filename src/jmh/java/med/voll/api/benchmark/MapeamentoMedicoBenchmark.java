@@ -0,0 +1,37 @@
+package med.voll.api.benchmark;
+
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoMedicoBenchmark {
+
+    private Medico medico;
+
+    @Setup
+    public void setUp() {
+        var endereco = new DadosEndereco("Rua das Flores", "Bairro Exemplo", "01000000",
+                "São Paulo", "SP", "Apto 123", "123");
+        medico = new Medico(new DadosCadastroMedico("João da Silva", "joao@voll.med",
+                "11999999999", "12345", Especialidade.CARDIOLOGIA, endereco));
+    }
+
+    @Benchmark
+    public DadosListagemMedico mapearListagem() {
+        return new DadosListagemMedico(medico);
+    }
+
+    @Benchmark
+    public DadosDetalhamentoMedico mapearDetalhamento() {
+        return new DadosDetalhamentoMedico(medico);
+    }
+
+}
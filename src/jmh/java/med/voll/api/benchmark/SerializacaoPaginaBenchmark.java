@@ -0,0 +1,46 @@
+package med.voll.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.domain.medico.DadosListagemMedico;
+import med.voll.api.domain.medico.Especialidade;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoPaginaBenchmark {
+
+    @Param({"10", "50"})
+    private int tamanho;
+
+    private ObjectMapper objectMapper;
+    private Page<DadosListagemMedico> pagina;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var medicos = LongStream.rangeClosed(1, tamanho)
+                .mapToObj(id -> new DadosListagemMedico(id, "Médico " + id, "medico" + id + "@voll.med",
+                        String.valueOf(10000 + id), Especialidade.values()[(int) (id % Especialidade.values().length)]))
+                .toList();
+        pagina = new PageImpl<>(medicos, PageRequest.of(0, tamanho, Sort.by("nome")), 1000);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+}
@@ -0,0 +1,108 @@
+package med.voll.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.domain.medico.DadosListagemMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.infra.exception.custom.ServicoSobrecarregadoException;
+import med.voll.api.infra.security.ExecutorDeLogin;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Compara a latência de uma operação de CRUD (serializar uma página de médicos) enquanto várias threads fazem
+ * login ao mesmo tempo, com o BCrypt rodando na própria thread do request e com ele isolado no
+ * {@link ExecutorDeLogin}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TempestadeDeLoginBenchmark {
+
+    private static final String SENHA = "123456";
+
+    @Param({"10"})
+    private int custo;
+
+    @Param({"2"})
+    private int threadsDeLogin;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+    private ExecutorDeLogin executorDeLogin;
+    private ObjectMapper objectMapper;
+    private Page<DadosListagemMedico> pagina;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(custo);
+        hash = encoder.encode(SENHA);
+
+        executorDeLogin = new ExecutorDeLogin();
+        ReflectionTestUtils.setField(executorDeLogin, "registry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(executorDeLogin, "decoradores",
+                new StaticListableBeanFactory().getBeanProvider(TaskDecorator.class));
+        ReflectionTestUtils.setField(executorDeLogin, "threads", threadsDeLogin);
+        ReflectionTestUtils.setField(executorDeLogin, "capacidadeFila", 16);
+        ReflectionTestUtils.invokeMethod(executorDeLogin, "inicializar");
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var medicos = LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> new DadosListagemMedico(id, "Médico " + id, "medico" + id + "@voll.med",
+                        String.valueOf(10000 + id), Especialidade.CARDIOLOGIA))
+                .toList();
+        pagina = new PageImpl<>(medicos, PageRequest.of(0, 10), 1000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(executorDeLogin, "encerrar");
+    }
+
+    @Benchmark
+    @Group("semIsolamento")
+    @GroupThreads(8)
+    public boolean loginNaThreadDoRequest() {
+        return encoder.matches(SENHA, hash);
+    }
+
+    @Benchmark
+    @Group("semIsolamento")
+    @GroupThreads(2)
+    public byte[] crudSemIsolamento() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    @Group("comIsolamento")
+    @GroupThreads(8)
+    public boolean loginNoExecutor() {
+        try {
+            return executorDeLogin.executar(() -> encoder.matches(SENHA, hash)).join();
+        } catch (ServicoSobrecarregadoException ex) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("comIsolamento")
+    @GroupThreads(2)
+    public byte[] crudComIsolamento() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+}
@@ -0,0 +1,125 @@
+package med.voll.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.usuario.DadosAutenticacao;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.security.TokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga sobre a aplicação completa (Tomcat, Hikari, MySQL do Testcontainers e BCrypt), com as requisições do
+ * Tomcat em threads de plataforma (pool padrão de 200) e em threads virtuais. Os dois modos usam o mesmo
+ * tamanho de pool do Hikari, então a diferença vem só do modelo de threads. Listagens de médicos e logins
+ * rodam ao mesmo tempo com mais clientes do que threads de plataforma; o modo Throughput reporta as
+ * requisições por segundo e o SampleTime o p99 de cada uma. Com threads virtuais, o {@code DetectorDePinning}
+ * registra no log os trechos do driver JDBC em que a thread ficou presa à carregadora.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ThreadsVirtuaisBenchmark {
+
+    private static final String LOGIN = "carga@voll.med";
+    private static final String SENHA = "123456";
+
+    @Param({"false", "true"})
+    private boolean threadsVirtuais;
+
+    @Param({"10"})
+    private int conexoesHikari;
+
+    @Param({"50"})
+    private int medicosCadastrados;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String url;
+    private String token;
+    private String corpoDoLogin;
+    private final List<Long> medicos = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws Exception {
+        contexto = AplicacaoComMySQL.iniciar(
+                "spring.threads.virtual.enabled=" + threadsVirtuais,
+                "spring.datasource.hikari.maximum-pool-size=" + conexoesHikari,
+                "spring.datasource.hikari.minimum-idle=" + conexoesHikari,
+                "server.tomcat.threads.max=200",
+                "api.security.login.capacidade-fila=1000");
+
+        var usuarios = contexto.getBean(UsuarioRepository.class);
+        usuarios.deleteAll();
+        var usuario = usuarios.save(new Usuario(null, LOGIN, contexto.getBean(PasswordEncoder.class).encode(SENHA)));
+        token = contexto.getBean(TokenService.class).gerarToken(usuario);
+        corpoDoLogin = new ObjectMapper().writeValueAsString(new DadosAutenticacao(LOGIN, SENHA));
+
+        var endereco = new DadosEndereco("Rua das Flores", "Bairro Exemplo", "01000000",
+                "São Paulo", "SP", "Apto 123", "123");
+        var medicoRepository = contexto.getBean(MedicoRepository.class);
+        for (var i = 0; i < medicosCadastrados; i++) {
+            medicos.add(medicoRepository.save(new Medico(new DadosCadastroMedico("Médico Carga " + i,
+                    "medico" + i + ".carga@voll.med", "11999999999", "9%05d".formatted(i),
+                    Especialidade.CARDIOLOGIA, endereco))).getId());
+        }
+
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        url = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.getBean(MedicoRepository.class).deleteAllById(medicos);
+        medicos.clear();
+        contexto.close();
+    }
+
+    @Benchmark
+    @Group("carga")
+    @GroupThreads(192)
+    public int listarMedicos() throws Exception {
+        var requisicao = HttpRequest.newBuilder(URI.create(url + "/medicos?size=10&sort=nome"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return enviar(requisicao);
+    }
+
+    @Benchmark
+    @Group("carga")
+    @GroupThreads(64)
+    public int login() throws Exception {
+        var requisicao = HttpRequest.newBuilder(URI.create(url + "/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpoDoLogin))
+                .build();
+        return enviar(requisicao);
+    }
+
+    private int enviar(HttpRequest requisicao) throws Exception {
+        var resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException(requisicao.uri().getPath() + " respondeu " + resposta.statusCode());
+        }
+        return resposta.body().length;
+    }
+
+}
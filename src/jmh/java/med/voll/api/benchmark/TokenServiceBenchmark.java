@@ -0,0 +1,58 @@
+package med.voll.api.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.infra.security.TokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = "segredo-do-benchmark";
+
+    private TokenService tokenService;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenService, "tamanhoMaximoCache", 10_000L);
+        ReflectionTestUtils.setField(tokenService, "registry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(tokenService, "inicializar");
+
+        usuario = new Usuario(1L, "ana.souza@voll.med", "hash");
+        token = tokenService.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return tokenService.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String getSubjectComTokenEmCache() {
+        return tokenService.getSubject(token);
+    }
+
+    @Benchmark
+    public String verificarAssinaturaSemCache() {
+        return JWT.require(Algorithm.HMAC256(SECRET))
+                .withIssuer("API Voll.med")
+                .build()
+                .verify(token)
+                .getSubject();
+    }
+
+}
@@ -5,6 +5,7 @@ import med.voll.api.domain.usuario.DadosAutenticacao;
 import med.voll.api.domain.usuario.Usuario;
 import med.voll.api.infra.exception.custom.CredenciaisInvalidasException;
 import med.voll.api.infra.security.DadosTokenJWT;
+import med.voll.api.infra.security.ExecutorDeLogin;
 import med.voll.api.infra.security.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/login")
 public class AutenticacaoController {
@@ -26,8 +29,15 @@ public class AutenticacaoController {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private ExecutorDeLogin executorDeLogin;
+
     @PostMapping
-    public ResponseEntity efetuarLogin(@RequestBody @Valid DadosAutenticacao dados) {
+    public CompletableFuture<ResponseEntity<DadosTokenJWT>> efetuarLogin(@RequestBody @Valid DadosAutenticacao dados) {
+        return executorDeLogin.executar(() -> autenticar(dados));
+    }
+
+    private ResponseEntity<DadosTokenJWT> autenticar(DadosAutenticacao dados) {
         try {
             var authToken =  new UsernamePasswordAuthenticationToken(dados.login(), dados.senha());
             var authentication = manager.authenticate(authToken);
@@ -2,15 +2,34 @@ package med.voll.api.controller;
 
 import jakarta.validation.Valid;
 import med.voll.api.domain.consulta.AgendaDeConsultas;
+import med.voll.api.domain.consulta.ConsultaRepository;
 import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
-import med.voll.api.domain.consulta.DadosDetalhamentoConsulta;
+import med.voll.api.domain.consulta.DadosAgendamentoEmLote;
+import med.voll.api.domain.consulta.DadosCancelamentoConsulta;
+import med.voll.api.domain.consulta.DadosListagemConsulta;
+import med.voll.api.domain.consulta.MotivoCancelamento;
+import med.voll.api.domain.exportacao.ExportacaoDeCadastros;
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import med.voll.api.infra.paginacao.Cursor;
+import med.voll.api.infra.paginacao.DadosPaginaCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
 @RestController
 @RequestMapping("consultas")
@@ -19,12 +38,71 @@ public class ConsultaController {
     @Autowired
     private AgendaDeConsultas agenda;
 
+    @Autowired
+    private ConsultaRepository repository;
+
+    @Autowired
+    private ExportacaoDeCadastros exportacao;
+
     @PostMapping
     @Transactional
     public ResponseEntity agendar(@RequestBody @Valid DadosAgendamentoConsulta dados) {
-        agenda.agendar(dados);
-        return ResponseEntity.ok(new
-                DadosDetalhamentoConsulta(null, dados.idMedico(), dados.idPaciente(), dados.data()));
+        var consulta = agenda.agendar(dados);
+        return ResponseEntity.ok(consulta);
+    }
+
+    @PostMapping("/lote")
+    public ResponseEntity agendarEmLote(@RequestBody @Valid DadosAgendamentoEmLote dados) {
+        var resultado = agenda.agendarEmLote(dados);
+        return ResponseEntity.ok(resultado);
+    }
+
+    @GetMapping
+    @Transactional(readOnly = true)
+    public ResponseEntity<DadosPaginaCursor<DadosListagemConsulta>> listar(@RequestParam(required = false) Long idMedico,
+                                                                          @RequestParam(required = false) Long idPaciente,
+                                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                                                          @RequestParam(defaultValue = "") String cursor,
+                                                                          @RequestParam(defaultValue = "10") int tamanho) {
+        if ((idMedico == null) == (idPaciente == null)) {
+            throw new ValidacaoException("Informe o médico ou o paciente");
+        }
+        if (fim.isBefore(inicio)) {
+            throw new ValidacaoException("A data final deve ser igual ou posterior à inicial");
+        }
+
+        tamanho = DadosPaginaCursor.limitar(tamanho);
+        var posicao = cursor.isBlank() ? new Cursor(inicio.atStartOfDay().toString(), 0L) : Cursor.decodificar(cursor);
+        var data = dataDoCursor(posicao);
+        var limite = fim.plusDays(1).atStartOfDay();
+        var consultas = idMedico != null
+                ? repository.listarDoMedicoAposCursor(idMedico, data, posicao.id(), limite, PageRequest.of(0, tamanho + 1))
+                : repository.listarDoPacienteAposCursor(idPaciente, data, posicao.id(), limite, PageRequest.of(0, tamanho + 1));
+
+        var pagina = DadosPaginaCursor.de(consultas, tamanho,
+                consulta -> new Cursor(consulta.data().toString(), consulta.id()));
+        return ResponseEntity.ok(pagina);
+    }
+
+    @DeleteMapping("/{id}")
+    @Transactional
+    public ResponseEntity cancelar(@PathVariable Long id, @RequestParam MotivoCancelamento motivo) {
+        agenda.cancelar(new DadosCancelamentoConsulta(id, motivo));
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping(value = "/exportacao", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ResponseEntity.ok(exportacao::exportarConsultas);
+    }
+
+    private LocalDateTime dataDoCursor(Cursor cursor) {
+        try {
+            return LocalDateTime.parse(cursor.chave());
+        } catch (DateTimeParseException ex) {
+            throw new ValidacaoException("Cursor de paginação inválido");
+        }
     }
 
 }
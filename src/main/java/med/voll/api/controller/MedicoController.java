@@ -1,18 +1,41 @@
 package med.voll.api.controller;
 
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import med.voll.api.domain.consulta.AgendaDeConsultas;
+import med.voll.api.domain.consulta.DadosAgendaMedico;
+import med.voll.api.domain.consulta.DisponibilidadeDeHorarios;
+import med.voll.api.domain.exportacao.ExportacaoDeCadastros;
+import med.voll.api.domain.importacao.DadosRelatorioImportacao;
+import med.voll.api.domain.importacao.FormatoImportacao;
+import med.voll.api.domain.importacao.ImportacaoDeCadastros;
 import med.voll.api.domain.medico.*;
 import med.voll.api.infra.exception.custom.MedicoJaExisteException;
 import med.voll.api.infra.exception.custom.ResourceNotFoundException;
+import med.voll.api.infra.http.EtagDeVersao;
+import med.voll.api.infra.paginacao.Cursor;
+import med.voll.api.infra.paginacao.DadosPaginaCursor;
+import org.hibernate.ObjectNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("medicos") //url
 public class MedicoController {
@@ -20,6 +43,30 @@ public class MedicoController {
     @Autowired
     private MedicoRepository repository;
 
+    @Autowired
+    private ImportacaoDeCadastros importacao;
+
+    @Autowired
+    private ExportacaoDeCadastros exportacao;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheListagemMedicos cacheListagem;
+
+    @Autowired
+    private IndiceDeNomesMedicos indiceDeNomes;
+
+    @Autowired
+    private FacetasMedicos facetas;
+
+    @Autowired
+    private DisponibilidadeDeHorarios disponibilidade;
+
+    @Autowired
+    private AgendaDeConsultas agenda;
+
     @PostMapping
     @Transactional
     public ResponseEntity cadastrar(@RequestBody @Valid DadosCadastroMedico dados, UriComponentsBuilder uriBuilder) {
@@ -33,28 +80,103 @@ public class MedicoController {
 
         var medico = new Medico(dados);
         repository.save(medico);
+        eventPublisher.publishEvent(new MedicoAlteradoEvent(medico));
         var uri = uriBuilder.path("/medicos/{id}").buildAndExpand(medico.getId()).toUri();
         return ResponseEntity.created(uri).body(new DadosDetalhamentoMedico(medico));
     }
 
     @GetMapping
-    public ResponseEntity<Page<DadosListagemMedico>> listar(@PageableDefault(size = 10, sort = {"nome"}) Pageable paginacao) {
-        var page = repository.findAllByAtivoTrue(paginacao).map(DadosListagemMedico::new);
+    @Transactional(readOnly = true)
+    public ResponseEntity<byte[]> listar(@PageableDefault(size = 10, sort = {"nome"}) Pageable paginacao,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var page = cacheListagem.buscar(paginacao);
 
-        if (page.isEmpty()) {
+        if (page.isVazia()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(page);
+        if (page.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(page.etag()).build();
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(page.etag()).body(page.conteudo());
+    }
+
+    @GetMapping(params = "cursor")
+    @Transactional(readOnly = true)
+    public ResponseEntity<DadosPaginaCursor<DadosListagemMedico>> listarPorCursor(@RequestParam String cursor,
+                                                                                 @RequestParam(defaultValue = "10") int tamanho) {
+        tamanho = DadosPaginaCursor.limitar(tamanho);
+        var limite = PageRequest.of(0, tamanho + 1);
+        List<DadosListagemMedico> medicos;
+        if (cursor.isBlank()) {
+            medicos = repository.listarAtivosPorNome(limite);
+        } else {
+            var posicao = Cursor.decodificar(cursor);
+            medicos = repository.listarAtivosAposCursor(posicao.chave(), posicao.id(), limite);
+        }
+
+        var pagina = DadosPaginaCursor.de(medicos, tamanho,
+                medico -> new Cursor(medico.nome(), medico.id()));
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/busca")
+    public ResponseEntity<List<DadosListagemMedico>> buscar(@RequestParam String termo,
+                                                            @RequestParam(required = false) Especialidade especialidade,
+                                                            @RequestParam(defaultValue = "10") int limite) {
+        var medicos = indiceDeNomes.buscar(termo, especialidade, DadosPaginaCursor.limitar(limite));
+        return ResponseEntity.ok(medicos);
+    }
+
+    @GetMapping("/filtro")
+    @Transactional(readOnly = true)
+    public ResponseEntity<DadosPaginaCursor<DadosListagemMedico>> filtrar(@RequestParam(required = false) Especialidade especialidade,
+                                                                         @RequestParam(required = false) String uf,
+                                                                         @RequestParam(required = false) String cidade,
+                                                                         @RequestParam(defaultValue = "") String cursor,
+                                                                         @RequestParam(defaultValue = "10") int tamanho) {
+        tamanho = DadosPaginaCursor.limitar(tamanho);
+        var posicao = cursor.isBlank() ? new Cursor("", 0L) : Cursor.decodificar(cursor);
+        var medicos = repository.filtrarAtivosAposCursor(especialidade, uf, cidade, posicao.chave(), posicao.id(),
+                PageRequest.of(0, tamanho + 1));
+
+        var pagina = DadosPaginaCursor.de(medicos, tamanho,
+                medico -> new Cursor(medico.nome(), medico.id()));
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/facetas")
+    public ResponseEntity<DadosFacetasMedicos> contarFacetas(@RequestParam(required = false) Especialidade especialidade,
+                                                             @RequestParam(required = false) String uf,
+                                                             @RequestParam(required = false) String cidade) {
+        return ResponseEntity.ok(facetas.contar(especialidade, uf, cidade));
+    }
+
+    @PostMapping(value = "/importacao", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<DadosRelatorioImportacao> importar(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                             InputStream corpo) throws IOException {
+        var relatorio = importacao.importarMedicos(corpo, FormatoImportacao.de(contentType));
+        return ResponseEntity.ok(relatorio);
+    }
+
+    @GetMapping(value = "/exportacao", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ResponseEntity.ok(exportacao::exportarMedicos);
     }
 
     @PutMapping
     @Transactional
-    public ResponseEntity atualizar(@RequestBody @Valid DadosAtualizacaoMedico dados) {
+    public ResponseEntity atualizar(@RequestBody @Valid DadosAtualizacaoMedico dados,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             var medico = repository.getReferenceById(dados.id());
+            EtagDeVersao.exigirSeInformado(ifMatch, medico.getId(), medico.getVersao());
             medico.atualizarInformacoes(dados);
-            return ResponseEntity.ok(new DadosDetalhamentoMedico(medico));
-        } catch (Exception e) {
+            repository.flush();
+            eventPublisher.publishEvent(new MedicoAlteradoEvent(medico));
+            return ResponseEntity.ok()
+                    .eTag(EtagDeVersao.gerar(medico.getId(), medico.getVersao()))
+                    .body(new DadosDetalhamentoMedico(medico));
+        } catch (EntityNotFoundException | ObjectNotFoundException e) {
             throw new ResourceNotFoundException("Medico não encontrado");
         }
     }
@@ -65,17 +187,47 @@ public class MedicoController {
         try {
             var medico = repository.getReferenceById(id);
             medico.excluir();
-            return ResponseEntity.noContent().build();
+            eventPublisher.publishEvent(new MedicoAlteradoEvent(medico));
         } catch (Exception e) {
             throw new ResourceNotFoundException("Medico não encontrado");
         }
+
+        agenda.cancelarConsultasFuturasDoMedico(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/agenda")
+    @Transactional(readOnly = true)
+    public ResponseEntity<DadosAgendaMedico> consultarAgenda(@PathVariable Long id,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        var agenda = disponibilidade.consultar(id, inicio, fim == null ? inicio : fim);
+        return ResponseEntity.ok(agenda);
+    }
+
+    @GetMapping(value = "/{id}", headers = HttpHeaders.IF_NONE_MATCH)
+    @Transactional(readOnly = true)
+    public ResponseEntity detalharSeAlterado(@PathVariable Long id,
+                                             @RequestHeader(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        var versao = repository.buscarVersao(id);
+        if (versao.isPresent() && EtagDeVersao.corresponde(ifNoneMatch, id, versao.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EtagDeVersao.gerar(id, versao.get())).build();
+        }
+        return detalhar(id);
     }
 
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity detalhar(@PathVariable Long id) {
         try {
             var medico = repository.getReferenceById(id);
-            return ResponseEntity.ok(new DadosDetalhamentoMedico(medico));
+            var detalhamento = new DadosDetalhamentoMedico(medico);
+            var resposta = ResponseEntity.ok().eTag(EtagDeVersao.gerar(medico.getId(), medico.getVersao()));
+            var ultimaModificacao = EtagDeVersao.ultimaModificacao(medico.getAtualizadoEm());
+            if (ultimaModificacao != null) {
+                resposta.lastModified(ultimaModificacao);
+            }
+            return resposta.body(detalhamento);
         } catch (Exception e) {
             throw new ResourceNotFoundException("Medico não encontrado");
         }
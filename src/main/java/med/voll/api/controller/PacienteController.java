@@ -1,13 +1,32 @@
 package med.voll.api.controller;
 
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import med.voll.api.domain.exportacao.ExportacaoDeCadastros;
+import med.voll.api.domain.importacao.DadosRelatorioImportacao;
+import med.voll.api.domain.importacao.FormatoImportacao;
+import med.voll.api.domain.importacao.ImportacaoDeCadastros;
 import med.voll.api.domain.paciente.*;
+import med.voll.api.infra.exception.custom.ResourceNotFoundException;
+import med.voll.api.infra.http.EtagDeVersao;
+import med.voll.api.infra.paginacao.Cursor;
+import med.voll.api.infra.paginacao.DadosPaginaCursor;
+import org.hibernate.ObjectNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("pacientes")
@@ -16,6 +35,12 @@ public class PacienteController {
     @Autowired
     private PacienteRepository repository;
 
+    @Autowired
+    private ImportacaoDeCadastros importacao;
+
+    @Autowired
+    private ExportacaoDeCadastros exportacao;
+
     @PostMapping
     @Transactional
     public void cadastrar(@RequestBody @Valid DadosCadastroPaciente dados) {
@@ -23,15 +48,75 @@ public class PacienteController {
     }
 
     @GetMapping
+    @Transactional(readOnly = true)
     public Page<DadosListagemPaciente> listar(@PageableDefault(page = 0, size = 10, sort = {"nome"}) Pageable paginacao) {
-        return repository.findAll(paginacao).map(DadosListagemPaciente::new);
+        return repository.listar(paginacao);
+    }
+
+    @GetMapping(params = "cursor")
+    @Transactional(readOnly = true)
+    public DadosPaginaCursor<DadosListagemPaciente> listarPorCursor(@RequestParam String cursor,
+                                                                    @RequestParam(defaultValue = "10") int tamanho) {
+        tamanho = DadosPaginaCursor.limitar(tamanho);
+        var limite = PageRequest.of(0, tamanho + 1);
+        List<DadosListagemPaciente> pacientes;
+        if (cursor.isBlank()) {
+            pacientes = repository.listarPorNome(limite);
+        } else {
+            var posicao = Cursor.decodificar(cursor);
+            pacientes = repository.listarAposCursor(posicao.chave(), posicao.id(), limite);
+        }
+
+        return DadosPaginaCursor.de(pacientes, tamanho,
+                paciente -> new Cursor(paciente.nome(), paciente.id()));
+    }
+
+    @PostMapping(value = "/importacao", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<DadosRelatorioImportacao> importar(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                             InputStream corpo) throws IOException {
+        var relatorio = importacao.importarPacientes(corpo, FormatoImportacao.de(contentType));
+        return ResponseEntity.ok(relatorio);
+    }
+
+    @GetMapping(value = "/exportacao", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ResponseEntity.ok(exportacao::exportarPacientes);
     }
 
     @PutMapping
     @Transactional
-    public void atualizar(@RequestBody @Valid DadosAtualizacaoPaciente dados) {
-        var paciente = repository.getReferenceById(dados.id());
-        paciente.atualizarInformacoes(dados);
+    public ResponseEntity<DadosDetalhamentoPaciente> atualizar(@RequestBody @Valid DadosAtualizacaoPaciente dados,
+                                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            var paciente = repository.getReferenceById(dados.id());
+            EtagDeVersao.exigirSeInformado(ifMatch, paciente.getId(), paciente.getVersao());
+            paciente.atualizarInformacoes(dados);
+            repository.flush();
+            return comVersao(paciente);
+        } catch (EntityNotFoundException | ObjectNotFoundException e) {
+            throw new ResourceNotFoundException("Paciente não encontrado");
+        }
+    }
+
+    @GetMapping(value = "/{id}", headers = HttpHeaders.IF_NONE_MATCH)
+    @Transactional(readOnly = true)
+    public ResponseEntity<DadosDetalhamentoPaciente> detalharSeAlterado(@PathVariable Long id,
+                                                                        @RequestHeader(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        var versao = repository.buscarVersao(id);
+        if (versao.isPresent() && EtagDeVersao.corresponde(ifNoneMatch, id, versao.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EtagDeVersao.gerar(id, versao.get())).build();
+        }
+        return detalhar(id);
+    }
+
+    @GetMapping("/{id}")
+    @Transactional(readOnly = true)
+    public ResponseEntity<DadosDetalhamentoPaciente> detalhar(@PathVariable Long id) {
+        try {
+            return comVersao(repository.getReferenceById(id));
+        } catch (EntityNotFoundException | ObjectNotFoundException e) {
+            throw new ResourceNotFoundException("Paciente não encontrado");
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -41,4 +126,14 @@ public class PacienteController {
         paciente.inativar();
     }
 
+    private ResponseEntity<DadosDetalhamentoPaciente> comVersao(Paciente paciente) {
+        var detalhamento = new DadosDetalhamentoPaciente(paciente);
+        var resposta = ResponseEntity.ok().eTag(EtagDeVersao.gerar(paciente.getId(), paciente.getVersao()));
+        var ultimaModificacao = EtagDeVersao.ultimaModificacao(paciente.getAtualizadoEm());
+        if (ultimaModificacao != null) {
+            resposta.lastModified(ultimaModificacao);
+        }
+        return resposta.body(detalhamento);
+    }
+
 }
\ No newline at end of file
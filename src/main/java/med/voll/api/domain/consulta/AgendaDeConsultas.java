@@ -1,15 +1,47 @@
 package med.voll.api.domain.consulta;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
+import med.voll.api.domain.consulta.validacoes.ValidacaoDeAgendamento;
 import med.voll.api.domain.medico.Medico;
 import med.voll.api.domain.medico.MedicoRepository;
 import med.voll.api.domain.paciente.PacienteRepository;
 import med.voll.api.infra.exception.custom.ResourceNotFoundException;
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import med.voll.api.infra.outbox.PublicadorDeEventos;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class AgendaDeConsultas {
 
+    private static final String METRICA_AGENDAMENTOS = "api.consultas.agendamentos";
+    private static final String RESULTADO_AGENDADA = "agendada";
+    private static final String RESULTADO_REJEITADA = "rejeitada";
+    private static final String RESULTADO_NAO_ENCONTRADO = "nao_encontrado";
+    private static final String AGREGADO = "Consulta";
+    private static final String AGREGADO_MEDICO = "Medico";
+    private static final String EVENTO_AGENDADA = "ConsultaAgendada";
+    private static final String EVENTO_CANCELADA = "ConsultaCancelada";
+    private static final String EVENTO_CANCELADAS_DO_MEDICO = "ConsultasDoMedicoCanceladas";
+    private static final String INDICE_HORARIO_DO_MEDICO = "ux_consultas_medico_id_data_ativa";
+    private static final String MEDICO_OCUPADO = "Médico já possui outra consulta agendada nesse horário";
+
     @Autowired
     private ConsultaRepository consultaRepository;
 
@@ -19,15 +51,233 @@ public class AgendaDeConsultas {
     @Autowired
     private PacienteRepository pacienteRepository;
 
-    public void agendar(DadosAgendamentoConsulta dados) {
+    @Autowired
+    private IndiceDeHorarios indiceDeHorarios;
+
+    @Autowired
+    private EscalaPorEspecialidade escalaPorEspecialidade;
+
+    @Autowired
+    private PublicadorDeEventos publicadorDeEventos;
+
+    @Autowired
+    private ValidacaoDeAgendamento validacao;
+
+    @Autowired
+    private Validator validator;
 
-        var paciente = pacienteRepository.findById(dados.idPaciente())
-                .orElseThrow(() -> new ResourceNotFoundException("Paciente não encontrado"));
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-        var medico = medicoRepository.findById(dados.idMedico())
-                .orElseThrow(() -> new ResourceNotFoundException("Medico não encontrado"));
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transacao;
+
+    @PostConstruct
+    void inicializar() {
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    public DadosDetalhamentoConsulta agendar(DadosAgendamentoConsulta dados) {
+        try {
+            var detalhamento = registrar(dados);
+            contarResultado(RESULTADO_AGENDADA);
+            return detalhamento;
+        } catch (ValidacaoException | ResourceNotFoundException ex) {
+            contarResultado(resultadoDaFalha(ex));
+            throw ex;
+        }
+    }
+
+    /**
+     * Agenda o lote em uma única transação, com um único insert em lote no flush final. Se esse flush esbarrar
+     * no índice único de horário do médico (uma consulta gravada fora deste nó, que o {@link IndiceDeHorarios}
+     * não conhece), a transação é desfeita e o lote é refeito item a item, cada um na sua transação, para que
+     * só o item em conflito seja rejeitado.
+     */
+    public DadosResultadoLote agendarEmLote(DadosAgendamentoEmLote lote) {
+        var itens = lote.consultas();
+        var metricas = new ArrayList<String>(itens.size());
+        try {
+            var resultado = transacao.execute(status -> gravarLote(itens, metricas));
+            metricas.forEach(this::contarResultado);
+            return resultado;
+        } catch (DataIntegrityViolationException ex) {
+            if (!isHorarioDoMedicoOcupado(ex)) {
+                throw ex;
+            }
+            entityManager.clear();
+            return agendarItemAItem(itens);
+        }
+    }
+
+    private DadosResultadoLote gravarLote(List<DadosAgendamentoConsulta> itens, List<String> metricas) {
+        travarPacientes(itens);
+        var validacaoDoLote = validacao.iniciarLote(itens);
+
+        var resultados = new ArrayList<DadosResultadoAgendamento>(itens.size());
+        for (var indice = 0; indice < itens.size(); indice++) {
+            var dados = itens.get(indice);
+            try {
+                validar(dados);
+                validacaoDoLote.validar(indice);
+                var paciente = pacienteRepository.getReferenceById(dados.idPaciente());
+                var medico = escolherMedico(dados, id -> Optional.of(medicoRepository.getReferenceById(id)));
+
+                var consulta = new Consulta(null, medico, paciente, dados.data());
+                consultaRepository.save(consulta);
+                validacaoDoLote.registrarAgendamento(indice);
+                var detalhamento = new DadosDetalhamentoConsulta(consulta);
+                publicadorDeEventos.publicar(AGREGADO, consulta.getId(), EVENTO_AGENDADA, detalhamento);
+                resultados.add(DadosResultadoAgendamento.sucesso(indice, detalhamento));
+                metricas.add(RESULTADO_AGENDADA);
+            } catch (ValidacaoException | ResourceNotFoundException ex) {
+                metricas.add(resultadoDaFalha(ex));
+                resultados.add(DadosResultadoAgendamento.falha(indice, ex.getMessage()));
+            }
+        }
+
+        consultaRepository.flush();
+        return new DadosResultadoLote(resultados);
+    }
+
+    private DadosResultadoLote agendarItemAItem(List<DadosAgendamentoConsulta> itens) {
+        var resultados = new ArrayList<DadosResultadoAgendamento>(itens.size());
+        for (var indice = 0; indice < itens.size(); indice++) {
+            var dados = itens.get(indice);
+            try {
+                validar(dados);
+                var detalhamento = transacao.execute(status -> registrar(dados));
+                resultados.add(DadosResultadoAgendamento.sucesso(indice, detalhamento));
+                contarResultado(RESULTADO_AGENDADA);
+            } catch (ValidacaoException | ResourceNotFoundException ex) {
+                contarResultado(resultadoDaFalha(ex));
+                resultados.add(DadosResultadoAgendamento.falha(indice, ex.getMessage()));
+            }
+        }
+        return new DadosResultadoLote(resultados);
+    }
+
+    private DadosDetalhamentoConsulta registrar(DadosAgendamentoConsulta dados) {
+        travarPacientes(List.of(dados));
+        validacao.validar(dados);
+        var paciente = pacienteRepository.getReferenceById(dados.idPaciente());
+        var medico = escolherMedico(dados, id -> Optional.of(medicoRepository.getReferenceById(id)));
 
         var consulta = new Consulta(null, medico, paciente, dados.data());
         consultaRepository.save(consulta);
+        try {
+            consultaRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            if (isHorarioDoMedicoOcupado(ex)) {
+                throw new ValidacaoException(MEDICO_OCUPADO);
+            }
+            throw ex;
+        }
+
+        var detalhamento = new DadosDetalhamentoConsulta(consulta);
+        publicadorDeEventos.publicar(AGREGADO, consulta.getId(), EVENTO_AGENDADA, detalhamento);
+        return detalhamento;
+    }
+
+    public void cancelar(DadosCancelamentoConsulta dados) {
+        var consulta = consultaRepository.findById(dados.idConsulta())
+                .orElseThrow(() -> new ResourceNotFoundException("Consulta não encontrada"));
+
+        if (consulta.isCancelada()) {
+            throw new ValidacaoException("Consulta já cancelada");
+        }
+        if (!consulta.getData().isAfter(LocalDateTime.now())) {
+            throw new ValidacaoException("Consulta já realizada não pode ser cancelada");
+        }
+
+        consulta.cancelar(dados.motivo());
+        var idMedico = consulta.getMedico().getId();
+        indiceDeHorarios.liberarNaTransacao(idMedico, consulta.getData());
+        publicadorDeEventos.publicar(AGREGADO, consulta.getId(), EVENTO_CANCELADA, dados);
+    }
+
+    /**
+     * Cancela com um único UPDATE todas as consultas do médico marcadas a partir de agora, liberando os
+     * mesmos slots no {@link IndiceDeHorarios} após o commit.
+     */
+    public int cancelarConsultasFuturasDoMedico(Long idMedico) {
+        var inicio = LocalDateTime.now();
+        var canceladas = consultaRepository.cancelarDoMedicoAPartirDe(idMedico, inicio,
+                MotivoCancelamento.MEDICO_INATIVADO);
+
+        indiceDeHorarios.liberarAPartirDeNaTransacao(idMedico, inicio);
+        if (canceladas > 0) {
+            publicadorDeEventos.publicar(AGREGADO_MEDICO, idMedico, EVENTO_CANCELADAS_DO_MEDICO,
+                    new DadosCancelamentoEmMassa(idMedico, inicio, MotivoCancelamento.MEDICO_INATIVADO, canceladas));
+        }
+        return canceladas;
+    }
+
+    /**
+     * Trava as linhas dos pacientes, em ordem de id, antes de qualquer leitura da transação. Agendamentos
+     * concorrentes do mesmo paciente se enfileiram aqui, e como a leitura consistente do MySQL só tira o
+     * snapshot depois da trava, o segundo já enxerga a consulta do primeiro na regra de uma por dia. O conflito
+     * de horário do médico não precisa disso: a reserva no {@link IndiceDeHorarios} já é atômica.
+     */
+    private void travarPacientes(List<DadosAgendamentoConsulta> itens) {
+        var ids = itens.stream()
+                .filter(Objects::nonNull)
+                .map(DadosAgendamentoConsulta::idPaciente)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (!ids.isEmpty()) {
+            pacienteRepository.travarParaAgendamento(ids);
+        }
+    }
+
+    private Medico escolherMedico(DadosAgendamentoConsulta dados, Function<Long, Optional<Medico>> buscarMedico) {
+        if (dados.idMedico() != null) {
+            var medico = buscarMedico.apply(dados.idMedico())
+                    .orElseThrow(() -> new ResourceNotFoundException("Medico não encontrado"));
+
+            if (!indiceDeHorarios.reservarNaTransacao(medico.getId(), dados.data())) {
+                throw new ValidacaoException(MEDICO_OCUPADO);
+            }
+            return medico;
+        }
+
+        if (dados.especialidade() == null) {
+            throw new ValidacaoException("Especialidade é obrigatória quando o médico não for escolhido");
+        }
+
+        var idMedico = escalaPorEspecialidade.reservarMedicoLivre(dados.especialidade(), dados.data())
+                .orElseThrow(() -> new ValidacaoException("Nenhum médico disponível nessa especialidade e horário"));
+        return medicoRepository.getReferenceById(idMedico);
+    }
+
+    private boolean isHorarioDoMedicoOcupado(DataIntegrityViolationException ex) {
+        var mensagem = ex.getMostSpecificCause().getMessage();
+        return mensagem != null && mensagem.contains(INDICE_HORARIO_DO_MEDICO);
+    }
+
+    private void contarResultado(String resultado) {
+        registry.counter(METRICA_AGENDAMENTOS, "resultado", resultado).increment();
+    }
+
+    private String resultadoDaFalha(RuntimeException ex) {
+        return ex instanceof ResourceNotFoundException ? RESULTADO_NAO_ENCONTRADO : RESULTADO_REJEITADA;
+    }
+
+    private void validar(DadosAgendamentoConsulta dados) {
+        if (dados == null) {
+            throw new ValidacaoException("Dados do agendamento não informados");
+        }
+
+        var violacoes = validator.validate(dados);
+        if (!violacoes.isEmpty()) {
+            throw new ValidacaoException(violacoes.stream()
+                    .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                    .collect(Collectors.joining("; ")));
+        }
     }
 }
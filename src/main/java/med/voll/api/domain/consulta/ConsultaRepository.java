@@ -1,6 +1,79 @@
 package med.voll.api.domain.consulta;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
+
+    @Query("""
+            select new med.voll.api.domain.consulta.HorarioOcupado(c.medico.id, c.data)
+            from Consulta c
+            where c.dataAtiva >= :inicio
+            """)
+    List<HorarioOcupado> buscarHorariosOcupadosAPartirDe(LocalDateTime inicio);
+
+    @Query("""
+            select c.data
+            from Consulta c
+            where c.medico.id = :idMedico
+            and c.dataAtiva >= :inicio and c.dataAtiva < :fim
+            """)
+    List<LocalDateTime> buscarHorariosDoMedicoEntre(Long idMedico, LocalDateTime inicio, LocalDateTime fim);
+
+    @Query("""
+            select new med.voll.api.domain.consulta.DadosListagemConsulta(
+                c.id, c.data, m.id, m.nome, m.especialidade, p.id, p.nome, c.motivoCancelamento)
+            from Consulta c
+            join c.medico m
+            join c.paciente p
+            where c.medico.id = :idMedico
+            and (c.data > :data or (c.data = :data and c.id > :id))
+            and c.data < :fim
+            order by c.data, c.id
+            """)
+    List<DadosListagemConsulta> listarDoMedicoAposCursor(Long idMedico, LocalDateTime data, Long id,
+                                                         LocalDateTime fim, Pageable limite);
+
+    @Query("""
+            select new med.voll.api.domain.consulta.DadosListagemConsulta(
+                c.id, c.data, m.id, m.nome, m.especialidade, p.id, p.nome, c.motivoCancelamento)
+            from Consulta c
+            join c.medico m
+            join c.paciente p
+            where c.paciente.id = :idPaciente
+            and (c.data > :data or (c.data = :data and c.id > :id))
+            and c.data < :fim
+            order by c.data, c.id
+            """)
+    List<DadosListagemConsulta> listarDoPacienteAposCursor(Long idPaciente, LocalDateTime data, Long id,
+                                                           LocalDateTime fim, Pageable limite);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Consulta c
+            set c.motivoCancelamento = :motivo
+            where c.medico.id = :idMedico
+            and c.data >= :inicio
+            and c.motivoCancelamento is null
+            """)
+    int cancelarDoMedicoAPartirDe(Long idMedico, LocalDateTime inicio, MotivoCancelamento motivo);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new med.voll.api.domain.consulta.DadosDetalhamentoConsulta(c.id, c.medico.id, c.paciente.id, c.data)
+            from Consulta c
+            """)
+    Stream<DadosDetalhamentoConsulta> exportarTodas();
 }
@@ -0,0 +1,6 @@
+package med.voll.api.domain.consulta;
+
+import java.util.List;
+
+public record DadosAgendaMedico(Long idMedico, List<DadosDiaAgenda> dias) {
+}
@@ -3,6 +3,7 @@ package med.voll.api.domain.consulta;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
+import med.voll.api.domain.medico.Especialidade;
 
 import java.time.LocalDateTime;
 
@@ -15,6 +16,8 @@ public record DadosAgendamentoConsulta(
         @NotNull
         @Future
         @JsonFormat(pattern = "dd/MM/yyyy HH:mm")
-        LocalDateTime data
+        LocalDateTime data,
+
+        Especialidade especialidade
 ) {
 }
@@ -0,0 +1,13 @@
+package med.voll.api.domain.consulta;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record DadosAgendamentoEmLote(
+        @NotEmpty
+        @Size(max = 1000)
+        List<DadosAgendamentoConsulta> consultas
+) {
+}
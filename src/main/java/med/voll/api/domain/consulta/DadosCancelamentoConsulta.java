@@ -0,0 +1,13 @@
+package med.voll.api.domain.consulta;
+
+import jakarta.validation.constraints.NotNull;
+
+public record DadosCancelamentoConsulta(
+
+        @NotNull
+        Long idConsulta,
+
+        @NotNull
+        MotivoCancelamento motivo
+) {
+}
@@ -0,0 +1,10 @@
+package med.voll.api.domain.consulta;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public record DadosDiaAgenda(LocalDate data, @JsonFormat(pattern = "HH:mm") List<LocalTime> horariosLivres) {
+}
@@ -0,0 +1,13 @@
+package med.voll.api.domain.consulta;
+
+public record DadosResultadoAgendamento(int indice, DadosDetalhamentoConsulta consulta, String erro) {
+
+    public static DadosResultadoAgendamento sucesso(int indice, DadosDetalhamentoConsulta consulta) {
+        return new DadosResultadoAgendamento(indice, consulta, null);
+    }
+
+    public static DadosResultadoAgendamento falha(int indice, String erro) {
+        return new DadosResultadoAgendamento(indice, null, erro);
+    }
+
+}
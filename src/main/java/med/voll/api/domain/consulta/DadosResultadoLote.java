@@ -0,0 +1,13 @@
+package med.voll.api.domain.consulta;
+
+import java.util.List;
+
+public record DadosResultadoLote(long agendadas, long rejeitadas, List<DadosResultadoAgendamento> resultados) {
+
+    public DadosResultadoLote(List<DadosResultadoAgendamento> resultados) {
+        this(resultados.stream().filter(r -> r.erro() == null).count(),
+                resultados.stream().filter(r -> r.erro() != null).count(),
+                resultados);
+    }
+
+}
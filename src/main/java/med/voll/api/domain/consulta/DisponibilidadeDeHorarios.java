@@ -0,0 +1,135 @@
+package med.voll.api.domain.consulta;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import med.voll.api.infra.exception.custom.ResourceNotFoundException;
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calcula os horários livres de um médico. Os horários ocupados de cada dia vêm de uma única consulta por
+ * intervalo no índice (medico_id, data) e ficam em cache como um bitmap de slots por dia; na montagem da
+ * resposta eles são combinados com o {@link IndiceDeHorarios}, que já reflete os agendamentos feitos nesta
+ * instância depois que o dia entrou no cache.
+ */
+@Service
+public class DisponibilidadeDeHorarios {
+
+    @Autowired
+    private ConsultaRepository repository;
+
+    @Autowired
+    private IndiceDeHorarios indiceDeHorarios;
+
+    @Autowired
+    private EscalaPorEspecialidade escala;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${api.agenda.maximo-dias:31}")
+    private int maximoDias;
+
+    @Value("${api.agenda.cache.tamanho-maximo:50000}")
+    private long tamanhoMaximoCache;
+
+    @Value("${api.agenda.cache.expiracao:30s}")
+    private Duration expiracaoCache;
+
+    private Cache<DiaDoMedico, Integer> ocupadosPorDia;
+
+    @PostConstruct
+    void inicializar() {
+        ocupadosPorDia = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfterWrite(expiracaoCache)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, ocupadosPorDia, "agenda-medicos");
+        indiceDeHorarios.aoLiberar((idMedico, data) ->
+                ocupadosPorDia.invalidate(new DiaDoMedico(idMedico, data.toLocalDate())));
+    }
+
+    public DadosAgendaMedico consultar(Long idMedico, LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            throw new ValidacaoException("A data final deve ser igual ou posterior à inicial");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= maximoDias) {
+            throw new ValidacaoException("O período consultado deve ter no máximo " + maximoDias + " dias");
+        }
+        if (!escala.isAtivo(idMedico)) {
+            throw new ResourceNotFoundException("Medico não encontrado");
+        }
+
+        var ocupados = carregarOcupados(idMedico, inicio, fim);
+        var agora = LocalDateTime.now();
+        var dias = new ArrayList<DadosDiaAgenda>();
+        for (var dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            var livres = HorarioDeFuncionamento.slotsDoDia(dia)
+                    & ~ocupados.get(dia)
+                    & ~indiceDeHorarios.slotsOcupados(idMedico, dia);
+            dias.add(new DadosDiaAgenda(dia, horarios(dia, livres, agora)));
+        }
+        return new DadosAgendaMedico(idMedico, dias);
+    }
+
+    private Map<LocalDate, Integer> carregarOcupados(Long idMedico, LocalDate inicio, LocalDate fim) {
+        var ocupados = new HashMap<LocalDate, Integer>();
+        LocalDate primeiroFaltante = null;
+        LocalDate ultimoFaltante = null;
+        for (var dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            var emCache = ocupadosPorDia.getIfPresent(new DiaDoMedico(idMedico, dia));
+            if (emCache != null) {
+                ocupados.put(dia, emCache);
+            } else {
+                primeiroFaltante = primeiroFaltante == null ? dia : primeiroFaltante;
+                ultimoFaltante = dia;
+            }
+        }
+
+        if (primeiroFaltante != null) {
+            var carregados = new HashMap<LocalDate, Integer>();
+            repository.buscarHorariosDoMedicoEntre(idMedico, primeiroFaltante.atStartOfDay(),
+                            ultimoFaltante.plusDays(1).atStartOfDay())
+                    .forEach(data -> carregados.merge(data.toLocalDate(), 1 << data.getHour(), (a, b) -> a | b));
+
+            for (var dia = primeiroFaltante; !dia.isAfter(ultimoFaltante); dia = dia.plusDays(1)) {
+                if (!ocupados.containsKey(dia)) {
+                    var bitmap = carregados.getOrDefault(dia, 0);
+                    ocupadosPorDia.put(new DiaDoMedico(idMedico, dia), bitmap);
+                    ocupados.put(dia, bitmap);
+                }
+            }
+        }
+        return ocupados;
+    }
+
+    private static List<LocalTime> horarios(LocalDate dia, int livres, LocalDateTime agora) {
+        var horarios = new ArrayList<LocalTime>(Integer.bitCount(livres));
+        for (var slots = livres; slots != 0; slots &= slots - 1) {
+            var hora = LocalTime.of(Integer.numberOfTrailingZeros(slots), 0);
+            if (dia.atTime(hora).isAfter(agora)) {
+                horarios.add(hora);
+            }
+        }
+        return horarios;
+    }
+
+    private record DiaDoMedico(Long idMedico, LocalDate dia) {
+    }
+}
@@ -0,0 +1,231 @@
+package med.voll.api.domain.consulta;
+
+import jakarta.annotation.PostConstruct;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.MedicoAlteradoEvent;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escala de médicos ativos por especialidade, usada para escolher um médico livre quando o agendamento não
+ * informa o médico. Cada médico ocupa uma posição fixa em um {@link BitSet} de ativos e cada slot guarda um
+ * {@link BitSet} de ocupados, de modo que a busca por um médico livre é feita palavra a palavra em vez de
+ * médico a médico. A reserva definitiva continua sendo feita no {@link IndiceDeHorarios}, que avisa a escala
+ * de toda reserva e liberação, inclusive as feitas com o médico escolhido pelo paciente.
+ */
+@Component
+public class EscalaPorEspecialidade {
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private IndiceDeHorarios indiceDeHorarios;
+
+    private final Map<Especialidade, Escala> escalas = new EnumMap<>(Especialidade.class);
+    private final Map<Long, Especialidade> especialidadePorMedico = new ConcurrentHashMap<>();
+
+    public EscalaPorEspecialidade() {
+        for (var especialidade : Especialidade.values()) {
+            escalas.put(especialidade, new Escala());
+        }
+    }
+
+    @PostConstruct
+    void carregar() {
+        medicoRepository.listarEspecialidadesDosAtivos()
+                .forEach(medico -> incluir(medico.id(), medico.especialidade()));
+        consultaRepository.buscarHorariosOcupadosAPartirDe(LocalDate.now().atStartOfDay())
+                .forEach(horario -> ocupar(horario.idMedico(), horario.data()));
+        indiceDeHorarios.aoReservar(this::ocupar);
+        indiceDeHorarios.aoLiberar(this::liberar);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(MedicoAlteradoEvent evento) {
+        if (evento.ativo()) {
+            incluir(evento.id(), evento.especialidade());
+        } else {
+            remover(evento.id());
+        }
+    }
+
+    public boolean isAtivo(Long idMedico) {
+        return especialidadePorMedico.containsKey(idMedico);
+    }
+
+    public Optional<Long> reservarMedicoLivre(Especialidade especialidade, LocalDateTime data) {
+        return escalas.get(especialidade).reservar(data, indiceDeHorarios);
+    }
+
+    @Scheduled(cron = "0 0 3 * * *")
+    public void descartarSlotsPassados() {
+        var agora = LocalDateTime.now();
+        escalas.values().forEach(escala -> escala.descartarAntesDe(agora));
+    }
+
+    private void ocupar(Long idMedico, LocalDateTime data) {
+        var especialidade = especialidadePorMedico.get(idMedico);
+        if (especialidade != null) {
+            escalas.get(especialidade).ocupar(idMedico, data);
+        }
+    }
+
+    private void liberar(Long idMedico, LocalDateTime data) {
+        var especialidade = especialidadePorMedico.get(idMedico);
+        if (especialidade != null) {
+            escalas.get(especialidade).liberar(idMedico, data);
+        }
+    }
+
+    private void incluir(Long idMedico, Especialidade especialidade) {
+        var anterior = especialidadePorMedico.put(idMedico, especialidade);
+        if (anterior != null && anterior != especialidade) {
+            escalas.get(anterior).remover(idMedico);
+        }
+        escalas.get(especialidade).incluir(idMedico);
+    }
+
+    private void remover(Long idMedico) {
+        var especialidade = especialidadePorMedico.remove(idMedico);
+        if (especialidade != null) {
+            escalas.get(especialidade).remover(idMedico);
+        }
+    }
+
+    private static class Escala {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Long> medicos = new ArrayList<>();
+        private final Map<Long, Integer> posicoes = new HashMap<>();
+        private final BitSet ativos = new BitSet();
+        private final Map<LocalDateTime, BitSet> ocupadosPorSlot = new HashMap<>();
+        private int proximaPosicao;
+
+        void incluir(Long idMedico) {
+            lock.lock();
+            try {
+                var posicao = posicoes.get(idMedico);
+                if (posicao == null) {
+                    posicao = medicos.size();
+                    medicos.add(idMedico);
+                    posicoes.put(idMedico, posicao);
+                }
+                ativos.set(posicao);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remover(Long idMedico) {
+            lock.lock();
+            try {
+                var posicao = posicoes.get(idMedico);
+                if (posicao != null) {
+                    ativos.clear(posicao);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Optional<Long> reservar(LocalDateTime data, IndiceDeHorarios indiceDeHorarios) {
+            var slot = data.truncatedTo(ChronoUnit.HOURS);
+            lock.lock();
+            try {
+                var candidatos = (BitSet) ativos.clone();
+                var ocupados = ocupadosPorSlot.get(slot);
+                if (ocupados != null) {
+                    candidatos.andNot(ocupados);
+                }
+
+                var posicao = candidatos.nextSetBit(proximaPosicao);
+                if (posicao < 0) {
+                    posicao = candidatos.nextSetBit(0);
+                }
+
+                while (posicao >= 0) {
+                    var idMedico = medicos.get(posicao);
+                    ocupar(slot, posicao);
+                    if (indiceDeHorarios.reservarNaTransacao(idMedico, data)) {
+                        proximaPosicao = posicao + 1;
+                        return Optional.of(idMedico);
+                    }
+
+                    candidatos.clear(posicao);
+                    var proxima = candidatos.nextSetBit(posicao + 1);
+                    posicao = proxima >= 0 ? proxima : candidatos.nextSetBit(0);
+                }
+                return Optional.empty();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void ocupar(Long idMedico, LocalDateTime data) {
+            lock.lock();
+            try {
+                var posicao = posicoes.get(idMedico);
+                if (posicao != null) {
+                    ocupar(data.truncatedTo(ChronoUnit.HOURS), posicao);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void liberar(Long idMedico, LocalDateTime data) {
+            var slot = data.truncatedTo(ChronoUnit.HOURS);
+            lock.lock();
+            try {
+                var posicao = posicoes.get(idMedico);
+                var ocupados = ocupadosPorSlot.get(slot);
+                if (posicao != null && ocupados != null) {
+                    ocupados.clear(posicao);
+                    if (ocupados.isEmpty()) {
+                        ocupadosPorSlot.remove(slot);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void ocupar(LocalDateTime slot, int posicao) {
+            var ocupados = ocupadosPorSlot.get(slot);
+            if (ocupados == null) {
+                ocupados = new BitSet();
+                ocupadosPorSlot.put(slot, ocupados);
+            }
+            ocupados.set(posicao);
+        }
+
+        void descartarAntesDe(LocalDateTime data) {
+            lock.lock();
+            try {
+                ocupadosPorSlot.keySet().removeIf(slot -> slot.isBefore(data));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
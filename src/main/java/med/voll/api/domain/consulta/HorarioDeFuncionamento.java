@@ -0,0 +1,27 @@
+package med.voll.api.domain.consulta;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public final class HorarioDeFuncionamento {
+
+    public static final int ABERTURA = 7;
+    public static final int ENCERRAMENTO = 19;
+
+    private static final int SLOTS_DE_DIA_UTIL = ((1 << ENCERRAMENTO) - 1) & ~((1 << ABERTURA) - 1);
+
+    private HorarioDeFuncionamento() {
+    }
+
+    public static boolean isAberto(LocalDateTime data) {
+        return (slotsDoDia(data.toLocalDate()) & (1 << data.getHour())) != 0;
+    }
+
+    /**
+     * Bits dos slots de uma hora em que a clínica atende no dia, no mesmo formato do {@link IndiceDeHorarios}.
+     */
+    public static int slotsDoDia(LocalDate dia) {
+        return dia.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : SLOTS_DE_DIA_UTIL;
+    }
+}
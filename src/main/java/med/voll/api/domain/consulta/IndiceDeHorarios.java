@@ -0,0 +1,242 @@
+package med.voll.api.domain.consulta;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Índice em memória dos horários ocupados de cada médico. Cada consulta ocupa um slot de uma hora e os
+ * slots de um dia são guardados como bits de um {@code int}, permitindo verificar conflitos sem consultar
+ * o banco. Cada médico tem seu próprio lock, de modo que agendamentos de médicos diferentes não disputam
+ * entre si.
+ */
+@Component
+public class IndiceDeHorarios {
+
+    @Autowired
+    private ConsultaRepository repository;
+
+    private final Map<Long, AgendaDoMedico> agendas = new ConcurrentHashMap<>();
+    private final List<BiConsumer<Long, LocalDateTime>> ouvintesDeReserva = new CopyOnWriteArrayList<>();
+    private final List<BiConsumer<Long, LocalDateTime>> ouvintesDeLiberacao = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void carregar() {
+        var hoje = LocalDate.now().atStartOfDay();
+        repository.buscarHorariosOcupadosAPartirDe(hoje)
+                .forEach(horario -> agendaDo(horario.idMedico()).reservar(horario.data()));
+    }
+
+    public boolean reservar(Long idMedico, LocalDateTime data) {
+        if (!agendaDo(idMedico).reservar(data)) {
+            return false;
+        }
+        ouvintesDeReserva.forEach(ouvinte -> ouvinte.accept(idMedico, data));
+        return true;
+    }
+
+    public boolean reservarNaTransacao(Long idMedico, LocalDateTime data) {
+        if (!reservar(idMedico, data)) {
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        liberar(idMedico, data);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    public void liberarNaTransacao(Long idMedico, LocalDateTime data) {
+        aposCommit(() -> liberar(idMedico, data));
+    }
+
+    /**
+     * Libera, após o commit, todos os slots do médico que terminam depois de {@code inicio}, percorrendo os
+     * bits do próprio índice em vez de consultar as consultas canceladas no banco. O slot da hora corrente
+     * também é liberado, já que pode conter uma consulta cancelada mais tarde na mesma hora.
+     */
+    public void liberarAPartirDeNaTransacao(Long idMedico, LocalDateTime inicio) {
+        aposCommit(() -> {
+            var agenda = agendas.get(idMedico);
+            if (agenda != null) {
+                agenda.liberarAPartirDe(inicio)
+                        .forEach(slot -> ouvintesDeLiberacao.forEach(ouvinte -> ouvinte.accept(idMedico, slot)));
+            }
+        });
+    }
+
+    public void liberar(Long idMedico, LocalDateTime data) {
+        var agenda = agendas.get(idMedico);
+        if (agenda != null) {
+            agenda.liberar(data);
+        }
+        ouvintesDeLiberacao.forEach(ouvinte -> ouvinte.accept(idMedico, data));
+    }
+
+    public void aoReservar(BiConsumer<Long, LocalDateTime> ouvinte) {
+        ouvintesDeReserva.add(ouvinte);
+    }
+
+    public void aoLiberar(BiConsumer<Long, LocalDateTime> ouvinte) {
+        ouvintesDeLiberacao.add(ouvinte);
+    }
+
+    public int slotsOcupados(Long idMedico, LocalDate dia) {
+        var agenda = agendas.get(idMedico);
+        return agenda == null ? 0 : agenda.slotsOcupados(dia);
+    }
+
+    public boolean isOcupado(Long idMedico, LocalDateTime data) {
+        var agenda = agendas.get(idMedico);
+        return agenda != null && agenda.isOcupado(data);
+    }
+
+    @Scheduled(cron = "0 0 3 * * *")
+    public void descartarDiasPassados() {
+        var hoje = LocalDate.now();
+        agendas.values().forEach(agenda -> agenda.descartarAntesDe(hoje));
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    private AgendaDoMedico agendaDo(Long idMedico) {
+        var agenda = agendas.get(idMedico);
+        if (agenda == null) {
+            agenda = agendas.computeIfAbsent(idMedico, id -> new AgendaDoMedico());
+        }
+        return agenda;
+    }
+
+    private static class AgendaDoMedico {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<LocalDate, Integer> slotsPorDia = new HashMap<>();
+
+        boolean reservar(LocalDateTime data) {
+            var bit = bitDoSlot(data);
+            lock.lock();
+            try {
+                var ocupados = slotsPorDia.getOrDefault(data.toLocalDate(), 0);
+                if ((ocupados & bit) != 0) {
+                    return false;
+                }
+                slotsPorDia.put(data.toLocalDate(), ocupados | bit);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void liberar(LocalDateTime data) {
+            var bit = bitDoSlot(data);
+            lock.lock();
+            try {
+                var ocupados = slotsPorDia.getOrDefault(data.toLocalDate(), 0) & ~bit;
+                if (ocupados == 0) {
+                    slotsPorDia.remove(data.toLocalDate());
+                } else {
+                    slotsPorDia.put(data.toLocalDate(), ocupados);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<LocalDateTime> liberarAPartirDe(LocalDateTime inicio) {
+            var liberados = new ArrayList<LocalDateTime>();
+            lock.lock();
+            try {
+                var dias = slotsPorDia.entrySet().iterator();
+                while (dias.hasNext()) {
+                    var dia = dias.next();
+                    if (dia.getKey().isBefore(inicio.toLocalDate())) {
+                        continue;
+                    }
+
+                    var ocupados = dia.getValue();
+                    var restantes = ocupados;
+                    for (var hora = 0; hora < 24; hora++) {
+                        var slot = dia.getKey().atTime(hora, 0);
+                        if ((ocupados & (1 << hora)) != 0 && slot.plusHours(1).isAfter(inicio)) {
+                            restantes &= ~(1 << hora);
+                            liberados.add(slot);
+                        }
+                    }
+
+                    if (restantes == 0) {
+                        dias.remove();
+                    } else {
+                        dia.setValue(restantes);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            return liberados;
+        }
+
+        int slotsOcupados(LocalDate dia) {
+            lock.lock();
+            try {
+                return slotsPorDia.getOrDefault(dia, 0);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isOcupado(LocalDateTime data) {
+            lock.lock();
+            try {
+                return (slotsPorDia.getOrDefault(data.toLocalDate(), 0) & bitDoSlot(data)) != 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void descartarAntesDe(LocalDate dia) {
+            lock.lock();
+            try {
+                slotsPorDia.keySet().removeIf(data -> data.isBefore(dia));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static int bitDoSlot(LocalDateTime data) {
+            return 1 << data.getHour();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package med.voll.api.domain.consulta;
+
+public enum MotivoCancelamento {
+
+    PACIENTE_DESISTIU,
+    MEDICO_CANCELOU,
+    MEDICO_INATIVADO,
+    AGENDAMENTO_DUPLICADO,
+    OUTROS;
+}
@@ -0,0 +1,49 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Dados de um agendamento em validação. A situação no banco é carregada na primeira chamada a
+ * {@link #situacao()} e reaproveitada pelas demais regras, de modo que regras puras que falham antes
+ * dispensam a consulta.
+ */
+public class ContextoAgendamento {
+
+    private final DadosAgendamentoConsulta dados;
+    private final LocalDateTime agora;
+    private final Supplier<SituacaoDoAgendamento> carregador;
+    private SituacaoDoAgendamento situacao;
+
+    public ContextoAgendamento(DadosAgendamentoConsulta dados, LocalDateTime agora,
+                               Supplier<SituacaoDoAgendamento> carregador) {
+        this.dados = dados;
+        this.agora = agora;
+        this.carregador = carregador;
+    }
+
+    public Long idMedico() {
+        return dados.idMedico();
+    }
+
+    public Long idPaciente() {
+        return dados.idPaciente();
+    }
+
+    public LocalDateTime data() {
+        return dados.data();
+    }
+
+    public LocalDateTime agora() {
+        return agora;
+    }
+
+    public SituacaoDoAgendamento situacao() {
+        if (situacao == null) {
+            situacao = carregador.get();
+        }
+        return situacao;
+    }
+}
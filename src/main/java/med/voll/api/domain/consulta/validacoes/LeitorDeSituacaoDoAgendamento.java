@@ -0,0 +1,79 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lê em uma única ida ao banco tudo o que as regras de agendamento precisam, para um agendamento ou para um
+ * lote inteiro. Os itens entram como uma tabela derivada e cada verificação é uma subconsulta atendida por
+ * índice: chave primária de pacientes e médicos e (paciente_id, data) de consultas. O conflito de horário do
+ * médico não é lido aqui: ele é garantido pela reserva no {@code IndiceDeHorarios}.
+ */
+@Component
+public class LeitorDeSituacaoDoAgendamento {
+
+    private static final String SQL = """
+            select
+                i.indice,
+                (select coalesce(p.ativo, 0) from pacientes p where p.id = i.id_paciente) as paciente_ativo,
+                (select coalesce(m.ativo, 0) from medicos m where m.id = i.id_medico) as medico_ativo,
+                exists(select 1 from consultas c
+                       where c.paciente_id = i.id_paciente
+                       and c.data >= i.inicio_do_dia and c.data < i.fim_do_dia
+                       and c.motivo_cancelamento is null) as paciente_com_consulta_no_dia
+            from (%s) i
+            """;
+
+    private static final String ITEM = """
+            select cast(? as signed) as indice, cast(? as signed) as id_paciente, cast(? as signed) as id_medico,
+                   cast(? as datetime) as inicio_do_dia, cast(? as datetime) as fim_do_dia
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public SituacaoDoAgendamento ler(DadosAgendamentoConsulta dados) {
+        return lerLote(List.of(dados)).get(0);
+    }
+
+    /**
+     * Devolve a situação de cada item na mesma posição da lista. Itens sem paciente ou data, que já foram
+     * rejeitados pela validação dos campos, ficam com {@code null}.
+     */
+    public List<SituacaoDoAgendamento> lerLote(List<DadosAgendamentoConsulta> itens) {
+        var situacoes = Arrays.asList(new SituacaoDoAgendamento[itens.size()]);
+        var parametros = new ArrayList<Object>();
+        for (var indice = 0; indice < itens.size(); indice++) {
+            var dados = itens.get(indice);
+            if (dados == null || dados.idPaciente() == null || dados.data() == null) {
+                continue;
+            }
+
+            var inicioDoDia = dados.data().toLocalDate().atStartOfDay();
+            parametros.addAll(Arrays.asList(indice, dados.idPaciente(), dados.idMedico(), inicioDoDia,
+                    inicioDoDia.plusDays(1)));
+        }
+
+        var quantidade = parametros.size() / 5;
+        if (quantidade == 0) {
+            return situacoes;
+        }
+
+        var sql = SQL.formatted(String.join(" union all ", Collections.nCopies(quantidade, ITEM)));
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            situacoes.set(rs.getInt("indice"), new SituacaoDoAgendamento(
+                    rs.getObject("paciente_ativo", Boolean.class),
+                    rs.getObject("medico_ativo", Boolean.class),
+                    rs.getBoolean("paciente_com_consulta_no_dia")));
+        }, parametros.toArray());
+        return situacoes;
+    }
+}
@@ -0,0 +1,4 @@
+package med.voll.api.domain.consulta.validacoes;
+
+public record SituacaoDoAgendamento(Boolean pacienteAtivo, Boolean medicoAtivo, boolean pacienteComConsultaNoDia) {
+}
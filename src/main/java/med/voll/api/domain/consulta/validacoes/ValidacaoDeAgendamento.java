@@ -0,0 +1,82 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Executa os {@link ValidadorAgendamento} na ordem de {@code @Order}. As regras que não dependem do banco vêm
+ * primeiro; as demais compartilham a situação carregada uma única vez pelo
+ * {@link LeitorDeSituacaoDoAgendamento}, então o custo de um agendamento não cresce com o número de regras.
+ */
+@Component
+public class ValidacaoDeAgendamento {
+
+    @Autowired
+    private List<ValidadorAgendamento> validadores;
+
+    @Autowired
+    private LeitorDeSituacaoDoAgendamento leitor;
+
+    public void validar(DadosAgendamentoConsulta dados) {
+        validar(dados, () -> leitor.ler(dados));
+    }
+
+    public ValidacaoDeLote iniciarLote(List<DadosAgendamentoConsulta> itens) {
+        return new ValidacaoDeLote(itens);
+    }
+
+    private void validar(DadosAgendamentoConsulta dados, Supplier<SituacaoDoAgendamento> carregador) {
+        var contexto = new ContextoAgendamento(dados, LocalDateTime.now(), carregador);
+        validadores.forEach(validador -> validador.validar(contexto));
+    }
+
+    /**
+     * Valida os itens de um lote com as mesmas regras do agendamento individual. A situação de todos os itens
+     * é lida em uma única consulta, na primeira regra que precisar dela, e os pacientes já agendados no
+     * próprio lote contam como consulta no dia para os itens seguintes.
+     */
+    public class ValidacaoDeLote {
+
+        private final List<DadosAgendamentoConsulta> itens;
+        private final Set<PacienteNoDia> agendadosNoLote = new HashSet<>();
+        private List<SituacaoDoAgendamento> situacoes;
+
+        private ValidacaoDeLote(List<DadosAgendamentoConsulta> itens) {
+            this.itens = itens;
+        }
+
+        public void validar(int indice) {
+            var dados = itens.get(indice);
+            ValidacaoDeAgendamento.this.validar(dados, () -> situacaoDo(indice));
+        }
+
+        public void registrarAgendamento(int indice) {
+            var dados = itens.get(indice);
+            agendadosNoLote.add(new PacienteNoDia(dados.idPaciente(), dados.data().toLocalDate()));
+        }
+
+        private SituacaoDoAgendamento situacaoDo(int indice) {
+            if (situacoes == null) {
+                situacoes = leitor.lerLote(itens);
+            }
+
+            var dados = itens.get(indice);
+            var situacao = situacoes.get(indice);
+            if (!agendadosNoLote.contains(new PacienteNoDia(dados.idPaciente(), dados.data().toLocalDate()))) {
+                return situacao;
+            }
+            return new SituacaoDoAgendamento(situacao.pacienteAtivo(), situacao.medicoAtivo(), true);
+        }
+    }
+
+    private record PacienteNoDia(Long idPaciente, LocalDate dia) {
+    }
+}
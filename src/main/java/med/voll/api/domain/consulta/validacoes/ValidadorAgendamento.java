@@ -0,0 +1,10 @@
+package med.voll.api.domain.consulta.validacoes;
+
+/**
+ * Regra de agendamento. Os dados do banco devem ser lidos apenas por {@link ContextoAgendamento#situacao()},
+ * que carrega tudo o que as regras precisam em uma única consulta; uma nova regra não deve fazer I/O próprio.
+ */
+public interface ValidadorAgendamento {
+
+    void validar(ContextoAgendamento contexto);
+}
@@ -0,0 +1,24 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Order(20)
+public class ValidadorAntecedenciaMinima implements ValidadorAgendamento {
+
+    @Value("${api.consultas.antecedencia-minima:30m}")
+    private Duration antecedenciaMinima;
+
+    @Override
+    public void validar(ContextoAgendamento contexto) {
+        if (contexto.data().isBefore(contexto.agora().plus(antecedenciaMinima))) {
+            throw new ValidacaoException("Consulta deve ser agendada com antecedência mínima de "
+                    + antecedenciaMinima.toMinutes() + " minutos");
+        }
+    }
+}
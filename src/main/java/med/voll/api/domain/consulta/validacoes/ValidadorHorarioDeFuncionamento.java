@@ -0,0 +1,18 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import med.voll.api.domain.consulta.HorarioDeFuncionamento;
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(10)
+public class ValidadorHorarioDeFuncionamento implements ValidadorAgendamento {
+
+    @Override
+    public void validar(ContextoAgendamento contexto) {
+        if (!HorarioDeFuncionamento.isAberto(contexto.data())) {
+            throw new ValidacaoException("Consulta fora do horário de funcionamento da clínica");
+        }
+    }
+}
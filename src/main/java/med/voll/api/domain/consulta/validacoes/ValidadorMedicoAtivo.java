@@ -0,0 +1,26 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import med.voll.api.infra.exception.custom.ResourceNotFoundException;
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(110)
+public class ValidadorMedicoAtivo implements ValidadorAgendamento {
+
+    @Override
+    public void validar(ContextoAgendamento contexto) {
+        if (contexto.idMedico() == null) {
+            return;
+        }
+
+        var ativo = contexto.situacao().medicoAtivo();
+        if (ativo == null) {
+            throw new ResourceNotFoundException("Medico não encontrado");
+        }
+        if (!ativo) {
+            throw new ValidacaoException("Consulta não pode ser agendada com médico inativo");
+        }
+    }
+}
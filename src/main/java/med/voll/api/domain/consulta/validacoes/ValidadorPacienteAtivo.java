@@ -0,0 +1,22 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import med.voll.api.infra.exception.custom.ResourceNotFoundException;
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(100)
+public class ValidadorPacienteAtivo implements ValidadorAgendamento {
+
+    @Override
+    public void validar(ContextoAgendamento contexto) {
+        var ativo = contexto.situacao().pacienteAtivo();
+        if (ativo == null) {
+            throw new ResourceNotFoundException("Paciente não encontrado");
+        }
+        if (!ativo) {
+            throw new ValidacaoException("Consulta não pode ser agendada com paciente inativo");
+        }
+    }
+}
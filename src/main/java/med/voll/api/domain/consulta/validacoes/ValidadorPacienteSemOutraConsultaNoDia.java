@@ -0,0 +1,17 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(200)
+public class ValidadorPacienteSemOutraConsultaNoDia implements ValidadorAgendamento {
+
+    @Override
+    public void validar(ContextoAgendamento contexto) {
+        if (contexto.situacao().pacienteComConsultaNoDia()) {
+            throw new ValidacaoException("Paciente já possui uma consulta agendada nesse dia");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package med.voll.api.domain.exportacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.medico.DadosDetalhamentoMedico;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.DadosDetalhamentoPaciente;
+import med.voll.api.domain.paciente.PacienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exporta médicos, pacientes e consultas em NDJSON diretamente de uma consulta em streaming. Cada linha é
+ * serializada e escrita assim que lida do banco e a entidade é desanexada em seguida, de modo que nem o
+ * contexto de persistência nem a resposta crescem com o tamanho da tabela.
+ */
+@Service
+public class ExportacaoDeCadastros {
+
+    private static final int NOVA_LINHA = '\n';
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${api.exportacao.linhas-por-flush:500}")
+    private int linhasPorFlush;
+
+    public void exportarMedicos(OutputStream saida) {
+        exportar(saida, medicoRepository::exportarTodos, DadosDetalhamentoMedico::new, entityManager::detach);
+    }
+
+    public void exportarPacientes(OutputStream saida) {
+        exportar(saida, pacienteRepository::exportarTodos, DadosDetalhamentoPaciente::new, entityManager::detach);
+    }
+
+    public void exportarConsultas(OutputStream saida) {
+        exportar(saida, consultaRepository::exportarTodas, Function.identity(), consulta -> {});
+    }
+
+    private <T> void exportar(OutputStream saida, Supplier<Stream<T>> consulta, Function<T, ?> converter,
+                              Consumer<T> descartar) {
+        var transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        transacao.executeWithoutResult(status -> {
+            var writer = objectMapper.writer();
+            var linhas = 0L;
+            try (var registros = consulta.get()) {
+                var iterador = registros.iterator();
+                while (iterador.hasNext()) {
+                    var registro = iterador.next();
+                    saida.write(writer.writeValueAsBytes(converter.apply(registro)));
+                    saida.write(NOVA_LINHA);
+                    descartar.accept(registro);
+
+                    if (++linhas == 1 || linhas % linhasPorFlush == 0) {
+                        saida.flush();
+                    }
+                }
+                saida.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+}
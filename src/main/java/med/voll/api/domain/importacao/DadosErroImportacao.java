@@ -0,0 +1,4 @@
+package med.voll.api.domain.importacao;
+
+public record DadosErroImportacao(long linha, String mensagem) {
+}
@@ -0,0 +1,7 @@
+package med.voll.api.domain.importacao;
+
+import java.util.List;
+
+public record DadosRelatorioImportacao(long processados, long importados, long rejeitados,
+                                       List<DadosErroImportacao> erros) {
+}
@@ -0,0 +1,26 @@
+package med.voll.api.domain.importacao;
+
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import org.springframework.http.MediaType;
+
+public enum FormatoImportacao {
+
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final MediaType tipo;
+
+    FormatoImportacao(String tipo) {
+        this.tipo = MediaType.parseMediaType(tipo);
+    }
+
+    public static FormatoImportacao de(String contentType) {
+        var tipo = MediaType.parseMediaType(contentType);
+        for (var formato : values()) {
+            if (formato.tipo.isCompatibleWith(tipo)) {
+                return formato;
+            }
+        }
+        throw new ValidacaoException("Formato de importação não suportado: " + contentType);
+    }
+}
@@ -0,0 +1,202 @@
+package med.voll.api.domain.importacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoAlteradoEvent;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.DadosCadastroPaciente;
+import med.voll.api.domain.paciente.Paciente;
+import med.voll.api.domain.paciente.PacienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importa médicos e pacientes a partir de um corpo NDJSON ou CSV lido de forma incremental. Os registros são
+ * agrupados em lotes; a unicidade de cada lote é verificada com uma consulta por coluna e cada lote é gravado
+ * na sua própria transação, com o contexto de persistência limpo ao final, para que o uso de memória não
+ * cresça com o tamanho do arquivo.
+ */
+@Service
+public class ImportacaoDeCadastros {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${api.importacao.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${api.importacao.maximo-erros-relatorio:1000}")
+    private int maximoErros;
+
+    public DadosRelatorioImportacao importarMedicos(InputStream corpo, FormatoImportacao formato) throws IOException {
+        return importar(corpo, formato, DadosCadastroMedico.class, this::gravarMedicos);
+    }
+
+    public DadosRelatorioImportacao importarPacientes(InputStream corpo, FormatoImportacao formato) throws IOException {
+        return importar(corpo, formato, DadosCadastroPaciente.class, this::gravarPacientes);
+    }
+
+    private <T> DadosRelatorioImportacao importar(InputStream corpo, FormatoImportacao formato, Class<T> tipo,
+                                                  GravadorDeLote<T> gravador) throws IOException {
+        var relatorio = new Relatorio(maximoErros);
+        var lote = new ArrayList<RegistroImportado<T>>(tamanhoLote);
+        var reader = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+
+        new LeitorDeRegistros<>(reader, formato, tipo, objectMapper).ler(registro -> {
+            relatorio.processados++;
+            var violacoes = validator.validate(registro.dados());
+            if (!violacoes.isEmpty()) {
+                relatorio.rejeitar(registro.linha(), violacoes.stream()
+                        .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            lote.add(registro);
+            if (lote.size() >= tamanhoLote) {
+                gravarLote(lote, gravador, relatorio);
+                lote.clear();
+            }
+        }, (linha, mensagem) -> {
+            relatorio.processados++;
+            relatorio.rejeitar(linha, mensagem);
+        });
+
+        if (!lote.isEmpty()) {
+            gravarLote(lote, gravador, relatorio);
+        }
+        return relatorio.gerar();
+    }
+
+    private <T> void gravarLote(List<RegistroImportado<T>> lote, GravadorDeLote<T> gravador, Relatorio relatorio) {
+        var erros = new ArrayList<DadosErroImportacao>();
+        try {
+            var importados = new TransactionTemplate(transactionManager).execute(status -> {
+                var gravados = gravador.gravar(lote, erros);
+                entityManager.flush();
+                entityManager.clear();
+                return gravados;
+            });
+            relatorio.importados += importados;
+            erros.forEach(erro -> relatorio.rejeitar(erro.linha(), erro.mensagem()));
+        } catch (RuntimeException ex) {
+            entityManager.clear();
+            lote.forEach(registro -> relatorio.rejeitar(registro.linha(), "Falha ao gravar o lote: " + ex.getMessage()));
+        }
+    }
+
+    private int gravarMedicos(List<RegistroImportado<DadosCadastroMedico>> lote, List<DadosErroImportacao> erros) {
+        var crmsExistentes = medicoRepository.buscarCrmsExistentes(valores(lote, DadosCadastroMedico::crm));
+        var emailsExistentes = medicoRepository.buscarEmailsExistentes(valores(lote, DadosCadastroMedico::email));
+        var crmsDoLote = new HashSet<String>();
+        var emailsDoLote = new HashSet<String>();
+
+        var medicos = new ArrayList<Medico>();
+        for (var registro : lote) {
+            var dados = registro.dados();
+            if (crmsExistentes.contains(dados.crm()) || !crmsDoLote.add(dados.crm())) {
+                erros.add(new DadosErroImportacao(registro.linha(), "Já existe um médico com esse CRM."));
+            } else if (emailsExistentes.contains(dados.email()) || !emailsDoLote.add(dados.email())) {
+                erros.add(new DadosErroImportacao(registro.linha(), "Já existe um médico com esse e-mail."));
+            } else {
+                medicos.add(new Medico(dados));
+            }
+        }
+
+        medicoRepository.saveAll(medicos);
+        medicos.forEach(medico -> eventPublisher.publishEvent(new MedicoAlteradoEvent(medico)));
+        return medicos.size();
+    }
+
+    private int gravarPacientes(List<RegistroImportado<DadosCadastroPaciente>> lote, List<DadosErroImportacao> erros) {
+        var cpfsExistentes = pacienteRepository.buscarCpfsExistentes(valores(lote, DadosCadastroPaciente::cpf));
+        var emailsExistentes = pacienteRepository.buscarEmailsExistentes(valores(lote, DadosCadastroPaciente::email));
+        var cpfsDoLote = new HashSet<String>();
+        var emailsDoLote = new HashSet<String>();
+
+        var pacientes = new ArrayList<Paciente>();
+        for (var registro : lote) {
+            var dados = registro.dados();
+            if (cpfsExistentes.contains(dados.cpf()) || !cpfsDoLote.add(dados.cpf())) {
+                erros.add(new DadosErroImportacao(registro.linha(), "Já existe um paciente com esse CPF."));
+            } else if (emailsExistentes.contains(dados.email()) || !emailsDoLote.add(dados.email())) {
+                erros.add(new DadosErroImportacao(registro.linha(), "Já existe um paciente com esse e-mail."));
+            } else {
+                pacientes.add(new Paciente(dados));
+            }
+        }
+
+        pacienteRepository.saveAll(pacientes);
+        return pacientes.size();
+    }
+
+    private static <T> List<String> valores(List<RegistroImportado<T>> lote, Function<T, String> valor) {
+        return lote.stream().map(registro -> valor.apply(registro.dados())).distinct().toList();
+    }
+
+    @FunctionalInterface
+    private interface GravadorDeLote<T> {
+        int gravar(List<RegistroImportado<T>> lote, List<DadosErroImportacao> erros);
+    }
+
+    private static class Relatorio {
+
+        private final int maximoErros;
+        private final List<DadosErroImportacao> erros = new ArrayList<>();
+        private long processados;
+        private long importados;
+        private long rejeitados;
+
+        Relatorio(int maximoErros) {
+            this.maximoErros = maximoErros;
+        }
+
+        void rejeitar(long linha, String mensagem) {
+            rejeitados++;
+            if (erros.size() < maximoErros) {
+                erros.add(new DadosErroImportacao(linha, mensagem));
+            }
+        }
+
+        DadosRelatorioImportacao gerar() {
+            return new DadosRelatorioImportacao(processados, importados, rejeitados, erros);
+        }
+    }
+}
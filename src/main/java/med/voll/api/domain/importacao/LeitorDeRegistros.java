@@ -0,0 +1,136 @@
+package med.voll.api.domain.importacao;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê registros NDJSON ou CSV linha a linha, sem carregar o corpo inteiro em memória. No CSV, a primeira linha
+ * é o cabeçalho e colunas como {@code endereco.cidade} são convertidas em objetos aninhados.
+ */
+class LeitorDeRegistros<T> {
+
+    private final BufferedReader reader;
+    private final FormatoImportacao formato;
+    private final Class<T> tipo;
+    private final ObjectMapper objectMapper;
+
+    private String[] cabecalho;
+    private long linha;
+
+    LeitorDeRegistros(BufferedReader reader, FormatoImportacao formato, Class<T> tipo, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.formato = formato;
+        this.tipo = tipo;
+        this.objectMapper = objectMapper;
+    }
+
+    void ler(ConsumidorDeRegistro<T> aoLer, ConsumidorDeErro aoFalhar) throws IOException {
+        String conteudo;
+        while ((conteudo = reader.readLine()) != null) {
+            linha++;
+            if (conteudo.isBlank()) {
+                continue;
+            }
+
+            if (formato == FormatoImportacao.CSV && cabecalho == null) {
+                cabecalho = separarCsv(conteudo).toArray(String[]::new);
+                continue;
+            }
+
+            // só a conversão é tratada aqui: falhas de quem consome o registro não podem contá-lo de novo como erro
+            T dados;
+            try {
+                dados = converter(conteudo);
+            } catch (JsonProcessingException ex) {
+                aoFalhar.aceitar(linha, "Registro inválido: " + ex.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException ex) {
+                aoFalhar.aceitar(linha, "Registro inválido: " + ex.getMessage());
+                continue;
+            }
+
+            if (dados == null) {
+                aoFalhar.aceitar(linha, "Registro inválido: registro nulo");
+                continue;
+            }
+            aoLer.aceitar(new RegistroImportado<>(linha, dados));
+        }
+    }
+
+    private T converter(String conteudo) throws JsonProcessingException {
+        if (formato == FormatoImportacao.NDJSON) {
+            return objectMapper.readValue(conteudo, tipo);
+        }
+
+        var valores = separarCsv(conteudo);
+        if (valores.size() != cabecalho.length) {
+            throw new IllegalArgumentException("esperadas " + cabecalho.length + " colunas, encontradas " + valores.size());
+        }
+
+        var registro = new LinkedHashMap<String, Object>();
+        for (var i = 0; i < cabecalho.length; i++) {
+            var valor = valores.get(i).isEmpty() ? null : valores.get(i);
+            atribuir(registro, cabecalho[i].trim(), valor);
+        }
+        return objectMapper.convertValue(registro, tipo);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void atribuir(Map<String, Object> registro, String coluna, String valor) {
+        var ponto = coluna.indexOf('.');
+        if (ponto < 0) {
+            registro.put(coluna, valor);
+            return;
+        }
+
+        var filho = (Map<String, Object>) registro.computeIfAbsent(coluna.substring(0, ponto),
+                chave -> new LinkedHashMap<String, Object>());
+        atribuir(filho, coluna.substring(ponto + 1), valor);
+    }
+
+    private static List<String> separarCsv(String conteudo) {
+        var valores = new ArrayList<String>();
+        var atual = new StringBuilder();
+        var entreAspas = false;
+
+        for (var i = 0; i < conteudo.length(); i++) {
+            var c = conteudo.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < conteudo.length() && conteudo.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                valores.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        valores.add(atual.toString());
+        return valores;
+    }
+
+    @FunctionalInterface
+    interface ConsumidorDeRegistro<T> {
+        void aceitar(RegistroImportado<T> registro);
+    }
+
+    @FunctionalInterface
+    interface ConsumidorDeErro {
+        void aceitar(long linha, String mensagem);
+    }
+}
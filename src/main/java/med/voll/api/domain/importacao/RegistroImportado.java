@@ -0,0 +1,4 @@
+package med.voll.api.domain.importacao;
+
+public record RegistroImportado<T>(long linha, T dados) {
+}
@@ -0,0 +1,116 @@
+package med.voll.api.domain.medico;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import med.voll.api.infra.datasource.ContextoDeRoteamento;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache das páginas serializadas de GET /medicos. A chave inclui uma geração global que é incrementada após
+ * cada alteração de médico, de modo que a invalidação custa um incremento e as páginas antigas apenas deixam
+ * de ser alcançadas até serem despejadas pelo limite de tamanho. Cada página guarda também o ETag calculado
+ * sobre os bytes, para que um If-None-Match seja respondido sem serializar nada.
+ * <p>
+ * As páginas que vão para o cache são lidas do primário: lidas de uma réplica atrasada, uma página anterior à
+ * última alteração ficaria guardada sob a geração nova e seria servida a todos até a próxima alteração.
+ */
+@Component
+public class CacheListagemMedicos {
+
+    private static final PaginaSerializada PAGINA_VAZIA = new PaginaSerializada(new byte[0], null);
+
+    @Autowired
+    private MedicoRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${api.cache.listagem-medicos.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${api.cache.listagem-medicos.tamanho-maximo:1000}")
+    private long tamanhoMaximo;
+
+    private final AtomicLong geracao = new AtomicLong();
+    private Cache<Chave, PaginaSerializada> paginas;
+
+    @PostConstruct
+    void inicializar() {
+        paginas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, paginas, "listagem-medicos");
+    }
+
+    public PaginaSerializada buscar(Pageable paginacao) {
+        if (!habilitado) {
+            return carregar(paginacao);
+        }
+
+        var chave = new Chave(geracao.get(), paginacao.getPageNumber(), paginacao.getPageSize(),
+                paginacao.getSort().toString());
+        return paginas.get(chave, c -> carregarDoPrimario(paginacao));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void invalidar(MedicoAlteradoEvent evento) {
+        geracao.incrementAndGet();
+    }
+
+    public CacheStats estatisticas() {
+        return paginas.stats();
+    }
+
+    private PaginaSerializada carregarDoPrimario(Pageable paginacao) {
+        var forcadoAntes = ContextoDeRoteamento.isPrimarioForcado();
+        ContextoDeRoteamento.forcarPrimario(true);
+        try {
+            return carregar(paginacao);
+        } finally {
+            if (!forcadoAntes) {
+                ContextoDeRoteamento.limpar();
+            }
+        }
+    }
+
+    private PaginaSerializada carregar(Pageable paginacao) {
+        var pagina = repository.listarAtivos(paginacao);
+        if (pagina.isEmpty()) {
+            return PAGINA_VAZIA;
+        }
+
+        try {
+            var conteudo = objectMapper.writeValueAsBytes(pagina);
+            return new PaginaSerializada(conteudo, "\"" + DigestUtils.md5DigestAsHex(conteudo) + "\"");
+        } catch (JsonProcessingException exception) {
+            throw new RuntimeException("Erro ao serializar a listagem de médicos", exception);
+        }
+    }
+
+    public record PaginaSerializada(byte[] conteudo, String etag) {
+
+        public boolean isVazia() {
+            return conteudo.length == 0;
+        }
+    }
+
+    private record Chave(long geracao, int pagina, int tamanho, String ordenacao) {
+    }
+}
@@ -0,0 +1,4 @@
+package med.voll.api.domain.medico;
+
+public record DadosEspecialidadeMedico(Long id, Especialidade especialidade) {
+}
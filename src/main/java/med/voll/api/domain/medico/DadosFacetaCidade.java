@@ -0,0 +1,4 @@
+package med.voll.api.domain.medico;
+
+public record DadosFacetaCidade(String uf, String cidade, long quantidade) {
+}
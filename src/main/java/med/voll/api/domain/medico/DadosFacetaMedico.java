@@ -0,0 +1,4 @@
+package med.voll.api.domain.medico;
+
+public record DadosFacetaMedico(Long id, Especialidade especialidade, String uf, String cidade) {
+}
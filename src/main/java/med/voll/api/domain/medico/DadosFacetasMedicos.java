@@ -0,0 +1,8 @@
+package med.voll.api.domain.medico;
+
+import java.util.List;
+import java.util.Map;
+
+public record DadosFacetasMedicos(long total, Map<Especialidade, Long> especialidades, Map<String, Long> ufs,
+                                  List<DadosFacetaCidade> cidades) {
+}
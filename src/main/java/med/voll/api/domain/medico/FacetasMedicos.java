@@ -0,0 +1,123 @@
+package med.voll.api.domain.medico;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contagem de médicos ativos por combinação de especialidade, UF e cidade, mantida em memória a partir dos
+ * eventos de alteração. As facetas de um filtro são somadas sobre as combinações, que são poucas, e cada
+ * dimensão é contada com os filtros das outras dimensões aplicados. UF e cidade são comparadas sem diferenciar
+ * maiúsculas e acentos, como a collation do MySQL faz em {@code GET /medicos/filtro}, e cada cidade é contada
+ * junto com a sua UF.
+ */
+@Component
+public class FacetasMedicos {
+
+    @Autowired
+    private MedicoRepository repository;
+
+    private final Map<Combinacao, Long> contagens = new ConcurrentHashMap<>();
+    private final Map<Long, Combinacao> combinacaoPorMedico = new ConcurrentHashMap<>();
+    private final Map<Cidade, String> nomesDasCidades = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void carregar() {
+        repository.listarFacetasDosAtivos().forEach(medico ->
+                registrar(medico.id(), combinacao(medico.especialidade(), medico.uf(), medico.cidade())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(MedicoAlteradoEvent evento) {
+        registrar(evento.id(), evento.ativo()
+                ? combinacao(evento.especialidade(), evento.uf(), evento.cidade())
+                : null);
+    }
+
+    public DadosFacetasMedicos contar(Especialidade especialidade, String uf, String cidade) {
+        var ufFiltrada = uf == null ? null : normalizarUf(uf);
+        var cidadeFiltrada = cidade == null ? null : IndiceDeNomesMedicos.normalizar(cidade);
+        var total = 0L;
+        var especialidades = new EnumMap<Especialidade, Long>(Especialidade.class);
+        var ufs = new TreeMap<String, Long>();
+        var cidades = new TreeMap<Cidade, Long>();
+
+        for (var contagem : contagens.entrySet()) {
+            var combinacao = contagem.getKey();
+            var quantidade = contagem.getValue();
+            var casaEspecialidade = especialidade == null || especialidade == combinacao.especialidade();
+            var casaUf = ufFiltrada == null || ufFiltrada.equals(combinacao.cidade().uf());
+            var casaCidade = cidadeFiltrada == null || cidadeFiltrada.equals(combinacao.cidade().nome());
+
+            if (casaUf && casaCidade) {
+                especialidades.merge(combinacao.especialidade(), quantidade, Long::sum);
+            }
+            if (casaEspecialidade && casaCidade) {
+                ufs.merge(combinacao.cidade().uf(), quantidade, Long::sum);
+            }
+            if (casaEspecialidade && casaUf) {
+                cidades.merge(combinacao.cidade(), quantidade, Long::sum);
+            }
+            if (casaEspecialidade && casaUf && casaCidade) {
+                total += quantidade;
+            }
+        }
+
+        var facetasDasCidades = cidades.entrySet().stream()
+                .map(contagem -> new DadosFacetaCidade(contagem.getKey().uf(),
+                        nomesDasCidades.getOrDefault(contagem.getKey(), contagem.getKey().nome()),
+                        contagem.getValue()))
+                .toList();
+        return new DadosFacetasMedicos(total, especialidades, ufs, facetasDasCidades);
+    }
+
+    private Combinacao combinacao(Especialidade especialidade, String uf, String cidade) {
+        var chave = new Cidade(normalizarUf(uf), IndiceDeNomesMedicos.normalizar(cidade));
+        if (cidade != null) {
+            nomesDasCidades.putIfAbsent(chave, cidade.trim());
+        }
+        return new Combinacao(especialidade, chave);
+    }
+
+    private static String normalizarUf(String uf) {
+        return uf == null ? "" : uf.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private void registrar(Long idMedico, Combinacao nova) {
+        combinacaoPorMedico.compute(idMedico, (id, anterior) -> {
+            if (Objects.equals(anterior, nova)) {
+                return anterior;
+            }
+            if (anterior != null) {
+                contagens.computeIfPresent(anterior, (c, quantidade) -> quantidade > 1 ? quantidade - 1 : null);
+            }
+            if (nova != null) {
+                contagens.merge(nova, 1L, Long::sum);
+            }
+            return nova;
+        });
+    }
+
+    private record Combinacao(Especialidade especialidade, Cidade cidade) {
+    }
+
+    /**
+     * Cidade normalizada dentro da sua UF; o nome exibido é o primeiro registrado para a mesma chave.
+     */
+    private record Cidade(String uf, String nome) implements Comparable<Cidade> {
+
+        @Override
+        public int compareTo(Cidade outra) {
+            var porUf = uf.compareTo(outra.uf);
+            return porUf != 0 ? porUf : nome.compareTo(outra.nome);
+        }
+    }
+}
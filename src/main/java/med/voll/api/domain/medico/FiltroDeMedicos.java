@@ -0,0 +1,11 @@
+package med.voll.api.domain.medico;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface FiltroDeMedicos {
+
+    List<DadosListagemMedico> filtrarAtivosAposCursor(Especialidade especialidade, String uf, String cidade,
+                                                      String nome, Long id, Pageable limite);
+}
@@ -0,0 +1,53 @@
+package med.voll.api.domain.medico;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Pageable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Monta a consulta só com os filtros informados. Predicados do tipo {@code (:uf is null or m.uf = :uf)} impedem
+ * o MySQL de usar os índices (ativo, especialidade, uf, cidade, nome, id) e (ativo, uf, cidade, nome, id), já
+ * que o plano é escolhido sem saber quais parâmetros são nulos.
+ */
+public class FiltroDeMedicosImpl implements FiltroDeMedicos {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DadosListagemMedico> filtrarAtivosAposCursor(Especialidade especialidade, String uf, String cidade,
+                                                             String nome, Long id, Pageable limite) {
+        var jpql = new StringBuilder("""
+                select new med.voll.api.domain.medico.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade)
+                from Medico m
+                where m.ativo = true
+                """);
+        var filtros = new LinkedHashMap<String, Object>();
+        if (especialidade != null) {
+            jpql.append("and m.especialidade = :especialidade\n");
+            filtros.put("especialidade", especialidade);
+        }
+        if (uf != null) {
+            jpql.append("and m.endereco.uf = :uf\n");
+            filtros.put("uf", uf);
+        }
+        if (cidade != null) {
+            jpql.append("and m.endereco.cidade = :cidade\n");
+            filtros.put("cidade", cidade);
+        }
+        jpql.append("""
+                and (m.nome > :nome or (m.nome = :nome and m.id > :id))
+                order by m.nome, m.id
+                """);
+
+        var query = entityManager.createQuery(jpql.toString(), DadosListagemMedico.class)
+                .setParameter("nome", nome)
+                .setParameter("id", id)
+                .setMaxResults(limite.getPageSize());
+        filtros.forEach(query::setParameter);
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,199 @@
+package med.voll.api.domain.medico;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória dos nomes dos médicos ativos, usado por GET /medicos/busca. Os nomes são normalizados sem
+ * acentos e em minúsculas; cada palavra entra em um mapa ordenado, para a busca por prefixo, e cada trigrama do
+ * nome entra em um mapa invertido, para a busca aproximada quando o termo tem erros de digitação.
+ */
+@Component
+public class IndiceDeNomesMedicos {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{Alnum}]+");
+    private static final double SIMILARIDADE_MINIMA = 0.3;
+
+    @Autowired
+    private MedicoRepository repository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entrada> entradas = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> idsPorPalavra = new TreeMap<>();
+    private final Map<String, Set<Long>> idsPorTrigrama = new HashMap<>();
+
+    @PostConstruct
+    void carregar() {
+        repository.listarTodosAtivos().forEach(this::incluir);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(MedicoAlteradoEvent evento) {
+        if (evento.ativo()) {
+            incluir(evento.listagem());
+        } else {
+            remover(evento.id());
+        }
+    }
+
+    public List<DadosListagemMedico> buscar(String termo, Especialidade especialidade, int limite) {
+        var normalizado = normalizar(termo);
+        if (normalizado.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            var encontrados = new LinkedHashSet<Long>();
+            buscarPorPrefixo(normalizado, especialidade).stream()
+                    .sorted(Comparator.comparing((Long id) -> entradas.get(id).normalizado()).thenComparing(id -> id))
+                    .limit(limite)
+                    .forEach(encontrados::add);
+
+            if (encontrados.size() < limite) {
+                buscarAproximado(normalizado, especialidade, encontrados).stream()
+                        .limit(limite - encontrados.size())
+                        .forEach(encontrados::add);
+            }
+
+            return encontrados.stream().map(id -> entradas.get(id).dados()).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+
+        var semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private Set<Long> buscarPorPrefixo(String normalizado, Especialidade especialidade) {
+        Set<Long> resultado = null;
+        for (var prefixo : normalizado.split(" ")) {
+            var ids = new HashSet<Long>();
+            idsPorPalavra.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+            if (resultado == null) {
+                resultado = ids;
+            } else {
+                resultado.retainAll(ids);
+            }
+            if (resultado.isEmpty()) {
+                break;
+            }
+        }
+
+        resultado.removeIf(id -> especialidade != null && entradas.get(id).dados().especialidade() != especialidade);
+        return resultado;
+    }
+
+    private List<Long> buscarAproximado(String normalizado, Especialidade especialidade, Set<Long> ignorar) {
+        var trigramasDoTermo = trigramas(normalizado);
+        var emComum = new HashMap<Long, Integer>();
+        for (var trigrama : trigramasDoTermo) {
+            for (var id : idsPorTrigrama.getOrDefault(trigrama, Set.of())) {
+                emComum.merge(id, 1, Integer::sum);
+            }
+        }
+
+        var candidatos = new ArrayList<Map.Entry<Long, Double>>();
+        emComum.forEach((id, comuns) -> {
+            var entrada = entradas.get(id);
+            if (ignorar.contains(id) || (especialidade != null && entrada.dados().especialidade() != especialidade)) {
+                return;
+            }
+
+            var similaridade = comuns / (double) (trigramasDoTermo.size() + entrada.trigramas() - comuns);
+            if (similaridade >= SIMILARIDADE_MINIMA) {
+                candidatos.add(Map.entry(id, similaridade));
+            }
+        });
+
+        candidatos.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry::getKey));
+        return candidatos.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private void incluir(DadosListagemMedico dados) {
+        var normalizado = normalizar(dados.nome());
+        var trigramas = trigramas(normalizado);
+
+        lock.writeLock().lock();
+        try {
+            removerSemLock(dados.id());
+            entradas.put(dados.id(), new Entrada(dados, normalizado, trigramas.size()));
+            for (var palavra : normalizado.split(" ")) {
+                idsPorPalavra.computeIfAbsent(palavra, p -> new HashSet<>()).add(dados.id());
+            }
+            for (var trigrama : trigramas) {
+                idsPorTrigrama.computeIfAbsent(trigrama, t -> new HashSet<>()).add(dados.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            removerSemLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removerSemLock(Long id) {
+        var anterior = entradas.remove(id);
+        if (anterior == null) {
+            return;
+        }
+
+        for (var palavra : anterior.normalizado().split(" ")) {
+            removerDoMapa(idsPorPalavra, palavra, id);
+        }
+        for (var trigrama : trigramas(anterior.normalizado())) {
+            removerDoMapa(idsPorTrigrama, trigrama, id);
+        }
+    }
+
+    private static void removerDoMapa(Map<String, Set<Long>> mapa, String chave, Long id) {
+        var ids = mapa.get(chave);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            mapa.remove(chave);
+        }
+    }
+
+    private static Set<String> trigramas(String normalizado) {
+        var trigramas = new HashSet<String>();
+        for (var palavra : normalizado.split(" ")) {
+            var comBordas = "  " + palavra + " ";
+            for (var i = 0; i + 3 <= comBordas.length(); i++) {
+                trigramas.add(comBordas.substring(i, i + 3));
+            }
+        }
+        return trigramas;
+    }
+
+    private record Entrada(DadosListagemMedico dados, String normalizado, int trigramas) {
+    }
+}
@@ -6,6 +6,9 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import med.voll.api.domain.endereco.Endereco;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Table(name = "medicos")
 @Entity(name = "Medico")
@@ -32,6 +35,12 @@ public class Medico {
 
     private Boolean ativo;
 
+    @Version
+    private Long versao;
+
+    @UpdateTimestamp
+    private LocalDateTime atualizadoEm;
+
     public Medico(DadosCadastroMedico dados) {
         this.ativo = true;
         this.nome = dados.nome();
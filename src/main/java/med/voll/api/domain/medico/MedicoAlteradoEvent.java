@@ -0,0 +1,17 @@
+package med.voll.api.domain.medico;
+
+public record MedicoAlteradoEvent(Long id, String nome, String email, String crm, Especialidade especialidade,
+                                  String uf, String cidade, boolean ativo) {
+
+    public MedicoAlteradoEvent(Medico medico) {
+        this(medico.getId(), medico.getNome(), medico.getEmail(), medico.getCrm(), medico.getEspecialidade(),
+                medico.getEndereco() == null ? null : medico.getEndereco().getUf(),
+                medico.getEndereco() == null ? null : medico.getEndereco().getCidade(),
+                Boolean.TRUE.equals(medico.getAtivo()));
+    }
+
+    public DadosListagemMedico listagem() {
+        return new DadosListagemMedico(id, nome, email, crm, especialidade);
+    }
+
+}
@@ -1,12 +1,84 @@
 package med.voll.api.domain.medico;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface MedicoRepository extends JpaRepository<Medico, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface MedicoRepository extends JpaRepository<Medico, Long>, FiltroDeMedicos {
     Page<Medico> findAllByAtivoTrue(Pageable paginacao);
 
     boolean existsByCrm(String crm);
     boolean existsByEmail(String email);
+
+    @Query("select m.versao from Medico m where m.id = :id")
+    Optional<Long> buscarVersao(Long id);
+
+    @Query("select m.crm from Medico m where m.crm in :crms")
+    Set<String> buscarCrmsExistentes(Collection<String> crms);
+
+    @Query("select m.email from Medico m where m.email in :emails")
+    Set<String> buscarEmailsExistentes(Collection<String> emails);
+
+    @Query("""
+            select new med.voll.api.domain.medico.DadosEspecialidadeMedico(m.id, m.especialidade)
+            from Medico m
+            where m.ativo = true
+            """)
+    List<DadosEspecialidadeMedico> listarEspecialidadesDosAtivos();
+
+    @Query("""
+            select new med.voll.api.domain.medico.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade)
+            from Medico m
+            where m.ativo = true
+            """)
+    List<DadosListagemMedico> listarTodosAtivos();
+
+    @Query(value = """
+            select new med.voll.api.domain.medico.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade)
+            from Medico m
+            where m.ativo = true
+            """,
+            countQuery = "select count(m) from Medico m where m.ativo = true")
+    Page<DadosListagemMedico> listarAtivos(Pageable paginacao);
+
+    @Query("""
+            select new med.voll.api.domain.medico.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade)
+            from Medico m
+            where m.ativo = true
+            order by m.nome, m.id
+            """)
+    List<DadosListagemMedico> listarAtivosPorNome(Pageable limite);
+
+    @Query("""
+            select new med.voll.api.domain.medico.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade)
+            from Medico m
+            where m.ativo = true
+            and (m.nome > :nome or (m.nome = :nome and m.id > :id))
+            order by m.nome, m.id
+            """)
+    List<DadosListagemMedico> listarAtivosAposCursor(String nome, Long id, Pageable limite);
+
+    @Query("""
+            select new med.voll.api.domain.medico.DadosFacetaMedico(m.id, m.especialidade, m.endereco.uf, m.endereco.cidade)
+            from Medico m
+            where m.ativo = true
+            """)
+    List<DadosFacetaMedico> listarFacetasDosAtivos();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select m from Medico m")
+    Stream<Medico> exportarTodos();
 }
@@ -6,6 +6,9 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import med.voll.api.domain.endereco.Endereco;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Getter
 @EqualsAndHashCode(of = "id")
@@ -28,6 +31,12 @@ public class Paciente {
     @Embedded
     private Endereco endereco;
 
+    @Version
+    private Long versao;
+
+    @UpdateTimestamp
+    private LocalDateTime atualizadoEm;
+
     public Paciente(DadosCadastroPaciente dados) {
         this.ativo = true;
         this.nome = dados.nome();
@@ -1,6 +1,59 @@
 package med.voll.api.domain.paciente;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface PacienteRepository extends JpaRepository<Paciente, Long> {
-}
\ No newline at end of file
+
+    @Query("select p.versao from Paciente p where p.id = :id")
+    Optional<Long> buscarVersao(Long id);
+
+    @Query(value = "select id from pacientes where id in :ids order by id for update", nativeQuery = true)
+    List<Long> travarParaAgendamento(Collection<Long> ids);
+
+    @Query("select p.cpf from Paciente p where p.cpf in :cpfs")
+    Set<String> buscarCpfsExistentes(Collection<String> cpfs);
+
+    @Query("select p.email from Paciente p where p.email in :emails")
+    Set<String> buscarEmailsExistentes(Collection<String> emails);
+
+    @Query(value = """
+            select new med.voll.api.domain.paciente.DadosListagemPaciente(p.id, p.nome, p.email, p.cpf)
+            from Paciente p
+            """,
+            countQuery = "select count(p) from Paciente p")
+    Page<DadosListagemPaciente> listar(Pageable paginacao);
+
+    @Query("""
+            select new med.voll.api.domain.paciente.DadosListagemPaciente(p.id, p.nome, p.email, p.cpf)
+            from Paciente p
+            order by p.nome, p.id
+            """)
+    List<DadosListagemPaciente> listarPorNome(Pageable limite);
+
+    @Query("""
+            select new med.voll.api.domain.paciente.DadosListagemPaciente(p.id, p.nome, p.email, p.cpf)
+            from Paciente p
+            where p.nome > :nome or (p.nome = :nome and p.id > :id)
+            order by p.nome, p.id
+            """)
+    List<DadosListagemPaciente> listarAposCursor(String nome, Long id, Pageable limite);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Paciente p")
+    Stream<Paciente> exportarTodos();
+}
@@ -0,0 +1,16 @@
+package med.voll.api.domain.usuario;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+public record UsuarioAutenticado(Long id, String login, List<String> perfis) {
+
+    public List<GrantedAuthority> getAuthorities() {
+        return perfis.stream()
+                .map(perfil -> (GrantedAuthority) new SimpleGrantedAuthority(perfil))
+                .toList();
+    }
+
+}
@@ -0,0 +1,21 @@
+package med.voll.api.infra.datasource;
+
+public final class ContextoDeRoteamento {
+
+    private static final ThreadLocal<Boolean> PRIMARIO_FORCADO = new ThreadLocal<>();
+
+    private ContextoDeRoteamento() {
+    }
+
+    public static void forcarPrimario(boolean forcar) {
+        PRIMARIO_FORCADO.set(forcar);
+    }
+
+    public static boolean isPrimarioForcado() {
+        return Boolean.TRUE.equals(PRIMARIO_FORCADO.get());
+    }
+
+    public static void limpar() {
+        PRIMARIO_FORCADO.remove();
+    }
+}
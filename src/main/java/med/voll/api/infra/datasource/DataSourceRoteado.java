@@ -0,0 +1,32 @@
+package med.voll.api.infra.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envia as transações somente leitura para a réplica e todo o resto para o primário. Só funciona atrás de um
+ * {@code LazyConnectionDataSourceProxy}, pois o flag de somente leitura da transação é definido depois que o
+ * gerenciador de transações pede a conexão.
+ */
+public class DataSourceRoteado extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIO, REPLICA
+    }
+
+    private final MonitorDeReplica monitor;
+
+    public DataSourceRoteado(MonitorDeReplica monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ContextoDeRoteamento.isPrimarioForcado()
+                && monitor.isDisponivel()) {
+            return Destino.REPLICA;
+        }
+        return Destino.PRIMARIO;
+    }
+}
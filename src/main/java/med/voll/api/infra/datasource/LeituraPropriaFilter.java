@@ -0,0 +1,70 @@
+package med.voll.api.infra.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import med.voll.api.domain.usuario.UsuarioAutenticado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Mantém no primário os requests de escrita e, por uma janela curta depois de uma escrita bem-sucedida, todos
+ * os requests do mesmo cliente, para que ele leia o que acabou de gravar mesmo com a réplica atrasada.
+ */
+@Component
+@ConditionalOnProperty("api.datasource.replica.url")
+public class LeituraPropriaFilter extends OncePerRequestFilter {
+
+    private static final Set<String> METODOS_SEGUROS = Set.of("GET", "HEAD", "OPTIONS");
+
+    @Value("${api.datasource.replica.janela-leitura-propria:5s}")
+    private Duration janela;
+
+    @Value("${api.datasource.replica.maximo-clientes:100000}")
+    private long maximoClientes;
+
+    private Cache<String, Boolean> clientesQueEscreveram;
+
+    @PostConstruct
+    void inicializar() {
+        clientesQueEscreveram = Caffeine.newBuilder()
+                .maximumSize(maximoClientes)
+                .expireAfterWrite(janela)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        var cliente = identificar(request);
+        var escrita = !METODOS_SEGUROS.contains(request.getMethod());
+        ContextoDeRoteamento.forcarPrimario(escrita || clientesQueEscreveram.getIfPresent(cliente) != null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContextoDeRoteamento.limpar();
+            if (escrita && response.getStatus() < 400) {
+                clientesQueEscreveram.put(cliente, Boolean.TRUE);
+            }
+        }
+    }
+
+    private String identificar(HttpServletRequest request) {
+        var autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            return "usuario:" + usuario.login();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
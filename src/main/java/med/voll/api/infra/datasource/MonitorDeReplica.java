@@ -0,0 +1,64 @@
+package med.voll.api.infra.datasource;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Acompanha o atraso de replicação da réplica. Enquanto o atraso passar do limite, a replicação estiver parada
+ * ou a réplica não responder, as leituras voltam para o primário. Um banco sem replicação configurada só é
+ * aceito como réplica quando {@code aceitarSemReplicacao} estiver ligado.
+ */
+public class MonitorDeReplica {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorDeReplica.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration atrasoMaximo;
+    private final boolean aceitarSemReplicacao;
+    private volatile boolean disponivel;
+
+    public MonitorDeReplica(DataSource replica, Duration atrasoMaximo, boolean aceitarSemReplicacao) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.atrasoMaximo = atrasoMaximo;
+        this.aceitarSemReplicacao = aceitarSemReplicacao;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${api.datasource.replica.intervalo-verificacao-ms:5000}")
+    public void verificar() {
+        var anterior = disponivel;
+        disponivel = replicaEmDia();
+        if (anterior != disponivel) {
+            log.info(disponivel
+                    ? "Réplica em dia, leituras somente leitura voltam para a réplica"
+                    : "Réplica indisponível ou atrasada, leituras enviadas ao primário");
+        }
+    }
+
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+
+    private boolean replicaEmDia() {
+        try {
+            var atrasos = jdbcTemplate.query("SHOW REPLICA STATUS",
+                    (rs, linha) -> rs.getObject("Seconds_Behind_Source", Long.class));
+            if (atrasos.isEmpty()) {
+                return aceitarSemReplicacao;
+            }
+
+            var atraso = atrasos.get(0);
+            return atraso != null && atraso <= atrasoMaximo.toSeconds();
+        } catch (DataAccessException ex) {
+            log.warn("Falha ao verificar o atraso da réplica: {}", ex.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package med.voll.api.infra.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty("api.datasource.replica.url")
+public class RoteamentoDataSourceConfigurations {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        var dataSource = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("api.datasource.replica.hikari")
+    public HikariDataSource dataSourceReplica(@Value("${api.datasource.replica.url}") String url,
+                                              @Value("${api.datasource.replica.username:${spring.datasource.username}}") String usuario,
+                                              @Value("${api.datasource.replica.password:${spring.datasource.password}}") String senha) {
+        var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(usuario)
+                .password(senha)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public MonitorDeReplica monitorDeReplica(@Qualifier("dataSourceReplica") DataSource replica,
+                                             @Value("${api.datasource.replica.atraso-maximo:2s}") Duration atrasoMaximo,
+                                             @Value("${api.datasource.replica.aceitar-sem-replicacao:false}") boolean aceitarSemReplicacao) {
+        return new MonitorDeReplica(replica, atrasoMaximo, aceitarSemReplicacao);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 MonitorDeReplica monitor) {
+        var roteado = new DataSourceRoteado(monitor);
+        roteado.setTargetDataSources(Map.of(
+                DataSourceRoteado.Destino.PRIMARIO, primario,
+                DataSourceRoteado.Destino.REPLICA, replica));
+        roteado.setDefaultTargetDataSource(primario);
+        roteado.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteado);
+    }
+
+}
@@ -3,9 +3,14 @@ package med.voll.api.infra.exception;
 import jakarta.persistence.EntityNotFoundException;
 import med.voll.api.infra.exception.custom.CredenciaisInvalidasException;
 import med.voll.api.infra.exception.custom.MedicoJaExisteException;
+import med.voll.api.infra.exception.custom.PreCondicaoFalhouException;
 import med.voll.api.infra.exception.custom.ResourceNotFoundException;
+import med.voll.api.infra.exception.custom.ServicoSobrecarregadoException;
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -49,4 +54,26 @@ public class TratadorDeErros {
         return ResponseEntity.badRequest().body(ex.getMessage());
     }
 
+    @ExceptionHandler(ValidacaoException.class)
+    public ResponseEntity<String> handleValidacao(ValidacaoException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler(PreCondicaoFalhouException.class)
+    public ResponseEntity<String> handlePreCondicaoFalhou(PreCondicaoFalhouException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflitoDeVersao(ObjectOptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("O registro foi alterado por outra requisição");
+    }
+
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<String> handleServicoSobrecarregado(ServicoSobrecarregadoException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
 }
@@ -0,0 +1,7 @@
+package med.voll.api.infra.exception.custom;
+
+public class PreCondicaoFalhouException extends RuntimeException {
+    public PreCondicaoFalhouException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package med.voll.api.infra.exception.custom;
+
+public class ServicoSobrecarregadoException extends RuntimeException {
+    public ServicoSobrecarregadoException(String message) {
+        super(message);
+    }
+}
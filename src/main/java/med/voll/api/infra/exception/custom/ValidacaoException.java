@@ -0,0 +1,7 @@
+package med.voll.api.infra.exception.custom;
+
+public class ValidacaoException extends RuntimeException {
+    public ValidacaoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,18 @@
+package med.voll.api.infra.http;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class EtagConfigurations {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagListagemPacientes() {
+        var registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/pacientes");
+        return registration;
+    }
+
+}
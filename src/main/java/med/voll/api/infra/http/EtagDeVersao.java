@@ -0,0 +1,48 @@
+package med.voll.api.infra.http;
+
+import med.voll.api.infra.exception.custom.PreCondicaoFalhouException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * ETags fortes derivados do id e da coluna de versão (@Version) das entidades, de modo que comparar um
+ * If-None-Match ou If-Match só exige a versão, sem carregar nem serializar a entidade.
+ */
+public final class EtagDeVersao {
+
+    private static final String QUALQUER = "*";
+
+    private EtagDeVersao() {
+    }
+
+    public static String gerar(Long id, Long versao) {
+        return "\"" + id + "-" + versao + "\"";
+    }
+
+    public static boolean corresponde(String cabecalho, Long id, Long versao) {
+        if (cabecalho == null) {
+            return false;
+        }
+
+        var esperado = gerar(id, versao);
+        for (var etag : cabecalho.split(",")) {
+            var valor = etag.trim();
+            if (valor.equals(QUALQUER) || valor.equals(esperado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void exigirSeInformado(String ifMatch, Long id, Long versao) {
+        if (ifMatch != null && !corresponde(ifMatch, id, versao)) {
+            throw new PreCondicaoFalhouException("O registro foi alterado por outra requisição");
+        }
+    }
+
+    public static Instant ultimaModificacao(LocalDateTime atualizadoEm) {
+        return atualizadoEm == null ? null : atualizadoEm.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,20 @@
+package med.voll.api.infra.jpa;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfigurations {
+
+    /**
+     * Com {@code allocationSize} maior que 1, o Hibernate usa o otimizador {@code pooled} por padrão. O
+     * {@code pooled-lo} é o que a tabela {@code consultas_seq} espera: o valor gravado é o início do próximo bloco.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer otimizadorDeSequencias() {
+        return propriedades -> propriedades.putIfAbsent(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+    }
+
+}
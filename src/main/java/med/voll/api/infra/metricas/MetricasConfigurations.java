@@ -0,0 +1,41 @@
+package med.voll.api.infra.metricas;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricasConfigurations {
+
+    private static final double[] PERCENTIS = {0.5, 0.95, 0.99};
+
+    /**
+     * Percentis (p50/p95/p99) e histogramas padrão dos timers acompanhados nos painéis. Só preenchem o que não
+     * foi configurado, então as propriedades {@code management.metrics.distribution.*} continuam valendo.
+     */
+    @Bean
+    public MeterFilter distribuicoesPadrao() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                var padrao = switch (id.getName()) {
+                    case "http.server.requests" -> DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .percentiles(PERCENTIS)
+                            .build();
+                    case "api.jwt.verificacao" -> DistributionStatisticConfig.builder()
+                            .percentiles(PERCENTIS)
+                            .build();
+                    case "hikaricp.connections.acquire" -> DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .build();
+                    default -> null;
+                };
+                return padrao == null ? config : config.merge(padrao);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,153 @@
+package med.voll.api.infra.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Drena a tabela eventos_outbox em lotes. Cada lote é reservado em uma transação curta com
+ * {@code FOR UPDATE SKIP LOCKED}, que adia o {@code disponivel_em} das linhas pelo tempo da reserva e faz o
+ * commit antes de chamar os manipuladores, de modo que nenhum lock ou conexão fica preso enquanto eles rodam
+ * e várias instâncias podem despachar em paralelo sem disputar as mesmas linhas. Só o evento mais antigo de
+ * cada agregado é considerado, garantindo a ordem dos eventos de um mesmo agregado. Eventos entregues são
+ * removidos; os que falham voltam à fila com espera exponencial, e os de uma instância que caiu voltam quando
+ * a reserva expira.
+ */
+@Component
+@ConditionalOnProperty(name = "api.outbox.despacho.habilitado", havingValue = "true", matchIfMissing = true)
+public class DespachanteDeEventos {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachanteDeEventos.class);
+    private static final String METRICA_EVENTOS = "api.outbox.eventos";
+
+    private static final String SQL_BUSCAR_LOTE = """
+            select e.id, e.agregado, e.id_agregado, e.tipo, e.payload, e.tentativas
+            from eventos_outbox e
+            where e.disponivel_em <= now(6)
+              and not exists (
+                  select 1 from eventos_outbox anterior
+                  where anterior.agregado = e.agregado
+                    and anterior.id_agregado = e.id_agregado
+                    and anterior.id < e.id)
+            order by e.id
+            limit ?
+            for update of e skip locked
+            """;
+
+    private static final String SQL_RESERVAR = """
+            update eventos_outbox set disponivel_em = date_add(now(6), interval ? second) where id = ?
+            """;
+
+    private static final String SQL_REMOVER = "delete from eventos_outbox where id = ?";
+
+    private static final String SQL_ADIAR = """
+            update eventos_outbox
+            set tentativas = tentativas + 1, ultimo_erro = ?, disponivel_em = date_add(now(6), interval ? second)
+            where id = ?
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired(required = false)
+    private List<ManipuladorDeEventoOutbox> manipuladores = List.of();
+
+    @Value("${api.outbox.tamanho-lote:100}")
+    private int tamanhoLote;
+
+    @Value("${api.outbox.espera-maxima:5m}")
+    private Duration esperaMaxima;
+
+    @Value("${api.outbox.reserva:1m}")
+    private Duration reserva;
+
+    private Map<String, List<ManipuladorDeEventoOutbox>> manipuladoresPorTipo;
+    private TransactionTemplate transacao;
+
+    @PostConstruct
+    void inicializar() {
+        manipuladoresPorTipo = manipuladores.stream()
+                .collect(Collectors.groupingBy(ManipuladorDeEventoOutbox::tipo));
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${api.outbox.intervalo-ms:500}")
+    public void despachar() {
+        List<EventoOutbox> eventos;
+        do {
+            eventos = transacao.execute(status -> reservarLote());
+            entregar(eventos);
+        } while (eventos.size() == tamanhoLote);
+    }
+
+    private List<EventoOutbox> reservarLote() {
+        var eventos = jdbcTemplate.query(SQL_BUSCAR_LOTE, (rs, linha) -> new EventoOutbox(
+                rs.getLong("id"),
+                rs.getString("agregado"),
+                rs.getLong("id_agregado"),
+                rs.getString("tipo"),
+                rs.getString("payload"),
+                rs.getInt("tentativas")), tamanhoLote);
+
+        if (!eventos.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_RESERVAR, eventos.stream()
+                    .map(evento -> new Object[]{reserva.toSeconds(), evento.id()})
+                    .toList());
+        }
+        return eventos;
+    }
+
+    private void entregar(List<EventoOutbox> eventos) {
+        var entregues = new ArrayList<Object[]>();
+        var falhas = new ArrayList<Object[]>();
+        for (var evento : eventos) {
+            try {
+                manipuladoresPorTipo.getOrDefault(evento.tipo(), List.of())
+                        .forEach(manipulador -> manipulador.manipular(evento));
+                entregues.add(new Object[]{evento.id()});
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao despachar o evento {} ({}) do outbox", evento.id(), evento.tipo(), ex);
+                falhas.add(new Object[]{mensagem(ex), espera(evento.tentativas()), evento.id()});
+            }
+        }
+
+        if (!entregues.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_REMOVER, entregues);
+        }
+        if (!falhas.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_ADIAR, falhas);
+        }
+        registry.counter(METRICA_EVENTOS, "resultado", "despachado").increment(entregues.size());
+        registry.counter(METRICA_EVENTOS, "resultado", "falha").increment(falhas.size());
+    }
+
+    private long espera(int tentativas) {
+        return Math.min(1L << Math.min(tentativas, 20), esperaMaxima.toSeconds());
+    }
+
+    private String mensagem(RuntimeException ex) {
+        var mensagem = String.valueOf(ex.getMessage());
+        return mensagem.length() > 500 ? mensagem.substring(0, 500) : mensagem;
+    }
+}
@@ -0,0 +1,4 @@
+package med.voll.api.infra.outbox;
+
+public record EventoOutbox(Long id, String agregado, Long idAgregado, String tipo, String payload, int tentativas) {
+}
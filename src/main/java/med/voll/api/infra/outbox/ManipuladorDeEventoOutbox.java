@@ -0,0 +1,15 @@
+package med.voll.api.infra.outbox;
+
+/**
+ * Manipulador local de eventos do outbox. É chamado fora de transação, depois que o lote já foi reservado e
+ * os locks liberados; se precisar de uma transação, deve abrir a sua. A entrega é feita ao menos uma vez
+ * (inclusive quando a execução passa do tempo de reserva, {@code api.outbox.reserva}), então a implementação
+ * deve ser idempotente; uma exceção mantém o evento na fila para nova tentativa e bloqueia os eventos
+ * seguintes do mesmo agregado.
+ */
+public interface ManipuladorDeEventoOutbox {
+
+    String tipo();
+
+    void manipular(EventoOutbox evento);
+}
@@ -0,0 +1,82 @@
+package med.voll.api.infra.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grava eventos na tabela eventos_outbox dentro da transação corrente. Os eventos de uma transação são
+ * acumulados e inseridos em um único lote antes do commit, de modo que o caminho da requisição ganha apenas
+ * um insert e os eventos só existem se a transação for confirmada.
+ */
+@Component
+public class PublicadorDeEventos {
+
+    private static final String SQL_INSERIR = """
+            insert into eventos_outbox (agregado, id_agregado, tipo, payload) values (?, ?, ?, ?)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void publicar(String agregado, Long idAgregado, String tipo, Object dados) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Eventos do outbox devem ser publicados dentro de uma transação");
+        }
+
+        pendentes().add(new NovoEvento(agregado, idAgregado, tipo, serializar(dados)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<NovoEvento> pendentes() {
+        var pendentes = (List<NovoEvento>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes != null) {
+            return pendentes;
+        }
+
+        var novos = new ArrayList<NovoEvento>();
+        TransactionSynchronizationManager.bindResource(this, novos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                gravar(novos);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PublicadorDeEventos.this);
+            }
+        });
+        return novos;
+    }
+
+    private void gravar(List<NovoEvento> eventos) {
+        jdbcTemplate.batchUpdate(SQL_INSERIR, eventos, eventos.size(), (ps, evento) -> {
+            ps.setString(1, evento.agregado());
+            ps.setLong(2, evento.idAgregado());
+            ps.setString(3, evento.tipo());
+            ps.setString(4, evento.payload());
+        });
+    }
+
+    private String serializar(Object dados) {
+        try {
+            return objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException exception) {
+            throw new RuntimeException("Erro ao serializar o evento do outbox", exception);
+        }
+    }
+
+    private record NovoEvento(String agregado, Long idAgregado, String tipo, String payload) {
+    }
+}
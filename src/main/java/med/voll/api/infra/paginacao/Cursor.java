@@ -0,0 +1,27 @@
+package med.voll.api.infra.paginacao;
+
+import med.voll.api.infra.exception.custom.ValidacaoException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record Cursor(String chave, Long id) {
+
+    private static final char SEPARADOR = ':';
+
+    public String codificar() {
+        var valor = id + String.valueOf(SEPARADOR) + chave;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decodificar(String token) {
+        try {
+            var valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var separador = valor.indexOf(SEPARADOR);
+            return new Cursor(valor.substring(separador + 1), Long.valueOf(valor.substring(0, separador)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new ValidacaoException("Cursor de paginação inválido");
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package med.voll.api.infra.paginacao;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record DadosPaginaCursor<T>(List<T> conteudo, String proximoCursor) {
+
+    public static final int TAMANHO_MAXIMO = 100;
+
+    public static int limitar(int tamanho) {
+        return Math.min(Math.max(tamanho, 1), TAMANHO_MAXIMO);
+    }
+
+    public static <T> DadosPaginaCursor<T> de(List<T> itens, int tamanho, Function<T, Cursor> cursorDoItem) {
+        if (itens.size() <= tamanho) {
+            return new DadosPaginaCursor<>(itens, null);
+        }
+
+        var pagina = itens.subList(0, tamanho);
+        return new DadosPaginaCursor<>(pagina, cursorDoItem.apply(pagina.get(tamanho - 1)).codificar());
+    }
+
+}
@@ -0,0 +1,73 @@
+package med.voll.api.infra.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import med.voll.api.infra.exception.custom.ServicoSobrecarregadoException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool dedicado à verificação de senhas no login. O BCrypt é caro de propósito, então o pool tem tamanho e fila
+ * limitados: um pico de logins ocupa apenas estas threads e, com a fila cheia, o login é recusado na hora em vez
+ * de disputar CPU com os demais endpoints. As tarefas passam pelo {@link TaskDecorator} da aplicação, quando
+ * houver, para levar o contexto do request (como a medição de SQL) à thread do pool.
+ */
+@Component
+public class ExecutorDeLogin {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ObjectProvider<TaskDecorator> decoradores;
+
+    @Value("${api.security.login.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int threads;
+
+    @Value("${api.security.login.capacidade-fila:100}")
+    private int capacidadeFila;
+
+    private ThreadPoolExecutor executor;
+    private TaskDecorator decorador;
+
+    @PostConstruct
+    void inicializar() {
+        var contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    var thread = new Thread(tarefa, "login-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(registry, executor, "login");
+        decorador = decoradores.getIfUnique(() -> tarefa -> tarefa);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    public <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+        try {
+            return CompletableFuture.supplyAsync(tarefa, comando -> executor.execute(decorador.decorate(comando)));
+        } catch (RejectedExecutionException ex) {
+            throw new ServicoSobrecarregadoException("Muitas tentativas de login simultâneas, tente novamente");
+        }
+    }
+}
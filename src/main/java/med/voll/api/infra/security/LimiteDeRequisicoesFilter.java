@@ -0,0 +1,190 @@
+package med.voll.api.infra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Limita a taxa de requests por usuário (ou por IP, quando o token ainda não foi verificado) com token buckets
+ * guardados em um mapa limitado. Roda antes do {@link SecurityFilter}, então um request recusado não chega a
+ * verificar JWT nem a tocar o banco. Os baldes são atualizados por CAS, sem locks. Atrás de um proxy
+ * confiável, o IP do cliente é o último endereço não confiável do {@code X-Forwarded-For}, como faz o
+ * {@code RemoteIpValve} do Tomcat.
+ */
+@Component
+public class LimiteDeRequisicoesFilter extends OncePerRequestFilter {
+
+    private static final String PREFIXO_BEARER = "Bearer ";
+    private static final String ROTA_PADRAO = "padrao";
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    private static final Pattern LITERAL_IP = Pattern.compile("[0-9a-fA-F.:]+");
+
+    @Autowired
+    private PropriedadesLimiteDeRequisicoes propriedades;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private Cache<String, Balde> baldes;
+    private List<IpAddressMatcher> proxiesConfiaveis;
+
+    @PostConstruct
+    void inicializar() {
+        var periodoMaximo = propriedades.rotas().values().stream()
+                .map(PropriedadesLimiteDeRequisicoes.Cota::periodo)
+                .reduce(propriedades.padrao().periodo(), (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        baldes = Caffeine.newBuilder()
+                .maximumSize(propriedades.maximoDeBaldes())
+                .expireAfterAccess(periodoMaximo)
+                .build();
+        proxiesConfiaveis = propriedades.proxiesConfiaveis().stream()
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !propriedades.habilitado();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        var rota = rota(request.getRequestURI());
+        var cota = rota.equals(ROTA_PADRAO) ? propriedades.padrao() : propriedades.rotas().get(rota);
+        var balde = baldes.get(rota + '|' + identificar(request), chave -> new Balde(cota));
+
+        var espera = balde.consumir(System.nanoTime());
+        if (espera > 0) {
+            registry.counter("api.limite.rejeicoes", "rota", rota).increment();
+            recusar(response, espera);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String rota(String uri) {
+        for (var padrao : propriedades.rotas().keySet()) {
+            if (matcher.match(padrao, uri)) {
+                return padrao;
+            }
+        }
+        return ROTA_PADRAO;
+    }
+
+    private String identificar(HttpServletRequest request) {
+        var authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(PREFIXO_BEARER)) {
+            var usuario = tokenService.usuarioJaVerificado(authorization.substring(PREFIXO_BEARER.length()).trim());
+            if (usuario.isPresent()) {
+                return "usuario:" + usuario.get().login();
+            }
+        }
+        return "ip:" + enderecoDoCliente(request);
+    }
+
+    private String enderecoDoCliente(HttpServletRequest request) {
+        var endereco = request.getRemoteAddr();
+        var encaminhado = request.getHeader(X_FORWARDED_FOR);
+        if (encaminhado == null || !isProxyConfiavel(endereco)) {
+            return endereco;
+        }
+
+        // percorre da direita para a esquerda: só os proxies confiáveis podem ter acrescentado entradas
+        var saltos = StringUtils.commaDelimitedListToStringArray(encaminhado);
+        for (var i = saltos.length - 1; i >= 0; i--) {
+            var salto = saltos[i].trim();
+            if (salto.isEmpty()) {
+                continue;
+            }
+            endereco = salto;
+            if (!isProxyConfiavel(salto)) {
+                break;
+            }
+        }
+        return endereco;
+    }
+
+    private boolean isProxyConfiavel(String endereco) {
+        // só literais IP: um nome no cabeçalho faria o IpAddressMatcher resolver DNS
+        if (!LITERAL_IP.matcher(endereco).matches()) {
+            return false;
+        }
+        for (var proxy : proxiesConfiaveis) {
+            try {
+                if (proxy.matches(endereco)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException ex) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void recusar(HttpServletResponse response, long esperaNanos) throws IOException {
+        var segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write("Limite de requisições excedido".getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static class Balde {
+
+        private final double capacidade;
+        private final double tokensPorNano;
+        private final AtomicReference<Estado> estado;
+
+        public Balde(PropriedadesLimiteDeRequisicoes.Cota cota) {
+            this.capacidade = cota.capacidade();
+            this.tokensPorNano = cota.capacidade() / (double) cota.periodo().toNanos();
+            this.estado = new AtomicReference<>(new Estado(capacidade, System.nanoTime()));
+        }
+
+        /**
+         * Consome um token e devolve 0, ou devolve quantos nanossegundos faltam para haver um token disponível.
+         */
+        public long consumir(long agora) {
+            while (true) {
+                var atual = estado.get();
+                var tokens = Math.min(capacidade, atual.tokens() + Math.max(0, agora - atual.atualizadoEm()) * tokensPorNano);
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / tokensPorNano);
+                }
+
+                if (estado.compareAndSet(atual, new Estado(tokens - 1, Math.max(agora, atual.atualizadoEm())))) {
+                    return 0;
+                }
+            }
+        }
+
+        private record Estado(double tokens, long atualizadoEm) {
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package med.voll.api.infra.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cotas do {@link LimiteDeRequisicoesFilter}. As rotas são padrões Ant avaliados na ordem em que foram
+ * declaradas; requests que não casam com nenhuma usam a cota padrão. O {@code X-Forwarded-For} só é
+ * considerado quando o request chega de um dos {@code proxiesConfiaveis} (IPs ou faixas CIDR).
+ */
+@ConfigurationProperties("api.limite-requisicoes")
+public record PropriedadesLimiteDeRequisicoes(@DefaultValue("true") boolean habilitado,
+                                              @DefaultValue("100000") long maximoDeBaldes,
+                                              @DefaultValue Cota padrao,
+                                              Map<String, Cota> rotas,
+                                              @DefaultValue({"127.0.0.0/8", "::1", "10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16"})
+                                              List<String> proxiesConfiaveis) {
+
+    public PropriedadesLimiteDeRequisicoes {
+        rotas = rotas == null ? Map.of() : new LinkedHashMap<>(rotas);
+        proxiesConfiaveis = proxiesConfiaveis == null ? List.of() : List.copyOf(proxiesConfiaveis);
+    }
+
+    public record Cota(@DefaultValue("60") long capacidade, @DefaultValue("1m") Duration periodo) {
+    }
+
+}
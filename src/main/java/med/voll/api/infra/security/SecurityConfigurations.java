@@ -1,10 +1,17 @@
 package med.voll.api.infra.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -13,15 +20,31 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(PropriedadesLimiteDeRequisicoes.class)
 public class SecurityConfigurations {
 
+    public static final String PROPRIEDADE_CUSTO_BCRYPT = "api.security.bcrypt.custo";
+    public static final int CUSTO_BCRYPT_PADRAO = 10;
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfigurations.class);
+
     @Autowired
     private SecurityFilter securityFilter;
 
+    @Autowired
+    private LimiteDeRequisicoesFilter limiteDeRequisicoesFilter;
+
+    @Value("${api.metricas.enderecos-permitidos:127.0.0.0/8,::1}")
+    private List<String> enderecosDeMetricas;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
@@ -29,19 +52,51 @@ public class SecurityConfigurations {
                         sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/login").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").access(origemDasMetricas())
                         .anyRequest().authenticated()
-                ).addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class);
+                )
+                .addFilterBefore(limiteDeRequisicoesFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
+    /**
+     * O endpoint de métricas não usa o JWT dos usuários da API: só é liberado para os endereços do coletor.
+     */
+    private AuthorizationManager<RequestAuthorizationContext> origemDasMetricas() {
+        var permitidos = enderecosDeMetricas.stream()
+                .map(IpAddressMatcher::new)
+                .toList();
+        return (autenticacao, contexto) -> new AuthorizationDecision(permitidos.stream()
+                .anyMatch(endereco -> endereco.matches(contexto.getRequest())));
+    }
+
+    @Bean
+    public FilterRegistrationBean<LimiteDeRequisicoesFilter> limiteDeRequisicoesRegistration() {
+        var registration = new FilterRegistrationBean<>(limiteDeRequisicoesFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
         return configuration.getAuthenticationManager();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${" + PROPRIEDADE_CUSTO_BCRYPT + ":" + CUSTO_BCRYPT_PADRAO + "}") int custo) {
+        var encoder = new BCryptPasswordEncoder(custo);
+        medirCusto(encoder, custo);
+        return encoder;
+    }
+
+    private void medirCusto(BCryptPasswordEncoder encoder, int custo) {
+        var hash = encoder.encode("medicao-de-custo");
+        var inicio = System.nanoTime();
+        encoder.matches("medicao-de-custo", hash);
+        log.info("BCrypt com custo {} leva {} ms por verificação de senha", custo,
+                (System.nanoTime() - inicio) / 1_000_000);
     }
 
 }
@@ -4,7 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.domain.usuario.UsuarioAutenticado;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,24 +19,20 @@ public class SecurityFilter extends OncePerRequestFilter {
     @Autowired
     private TokenService tokenService;
 
-    @Autowired
-    private UsuarioRepository usuarioRepository;
-
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         var tokenJWT = recuperarToken(request);
         if (tokenJWT != null) {
-            var subject = tokenService.getSubject(tokenJWT);
-            autenticaUsuario(subject);
+            var usuario = tokenService.recuperarUsuario(tokenJWT);
+            autenticaUsuario(usuario);
         }
 
         filterChain.doFilter(request, response);
     }
 
-    private void autenticaUsuario(String subject) {
-        var user = usuarioRepository.findByLogin(subject);
-        var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    private void autenticaUsuario(UsuarioAutenticado usuario) {
+        var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
@@ -1,31 +1,85 @@
 package med.voll.api.infra.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioAutenticado;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TokenService {
 
+    @Autowired
+    private MeterRegistry registry;
+
     @Value("${api.security.token.secret}")
     private String secret;
 
+    @Value("${api.security.token.cache.tamanho-maximo:10000}")
+    private long tamanhoMaximoCache;
+
     private static final String ISSUER = "API Voll.med";
+    private static final String CLAIM_ID = "id";
+    private static final String CLAIM_PERFIS = "perfis";
+    private static final List<String> PERFIS_PADRAO = List.of("ROLE_USER");
+
+    private Algorithm algoritmo;
+    private JWTVerifier verificador;
+    private Cache<String, TokenVerificado> tokensVerificados;
+    private Timer verificacoesValidas;
+    private Timer verificacoesInvalidas;
+
+    @PostConstruct
+    void inicializar() {
+        algoritmo = Algorithm.HMAC256(secret);
+        verificador = JWT.require(algoritmo)
+                .withIssuer(ISSUER)
+                .build();
+        tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfter(new ExpiracaoDoToken())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, tokensVerificados, "tokens-jwt");
+        verificacoesValidas = timerDeVerificacao("valido");
+        verificacoesInvalidas = timerDeVerificacao("invalido");
+    }
 
     public String gerarToken(Usuario usuario) {
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
             return JWT.create()
                     .withIssuer(ISSUER)
                     .withSubject(usuario.getLogin())
+                    .withClaim(CLAIM_ID, usuario.getId())
+                    .withClaim(CLAIM_PERFIS, usuario.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .toList())
                     .withExpiresAt(dataExpiracao())
                     .sign(algoritmo);
         } catch (JWTCreationException exception) {
@@ -34,20 +88,86 @@ public class TokenService {
     }
 
     public String getSubject(String tokenJWT) {
+        return recuperarUsuario(tokenJWT).login();
+    }
+
+    public UsuarioAutenticado recuperarUsuario(String tokenJWT) {
+        var chave = digest(tokenJWT);
+        var verificado = tokensVerificados.getIfPresent(chave);
+        if (verificado == null) {
+            verificado = verificar(tokenJWT);
+            tokensVerificados.put(chave, verificado);
+        }
+        return verificado.usuario();
+    }
+
+    public Optional<UsuarioAutenticado> usuarioJaVerificado(String tokenJWT) {
+        return Optional.ofNullable(tokensVerificados.getIfPresent(digest(tokenJWT))).map(TokenVerificado::usuario);
+    }
+
+    public CacheStats estatisticasCache() {
+        return tokensVerificados.stats();
+    }
+
+    private TokenVerificado verificar(String tokenJWT) {
+        var inicio = System.nanoTime();
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
-            return JWT.require(algoritmo)
-                    .withIssuer(ISSUER)
-                    .build()
-                    .verify(tokenJWT)
-                    .getSubject();
+            var jwt = verificador.verify(tokenJWT);
+            var perfis = jwt.getClaim(CLAIM_PERFIS).isMissing()
+                    ? PERFIS_PADRAO
+                    : jwt.getClaim(CLAIM_PERFIS).asList(String.class);
+            var usuario = new UsuarioAutenticado(jwt.getClaim(CLAIM_ID).asLong(), jwt.getSubject(), perfis);
+            verificacoesValidas.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return new TokenVerificado(usuario, jwt.getExpiresAtAsInstant());
         } catch (JWTVerificationException exception) {
+            verificacoesInvalidas.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
             throw new RuntimeException("Token JWT inválido ou expirado!");
         }
     }
 
+    private Timer timerDeVerificacao(String resultado) {
+        return Timer.builder("api.jwt.verificacao")
+                .description("Verificação de assinatura de tokens JWT que não estavam em cache")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private String digest(String tokenJWT) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(tokenJWT.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 indisponível", exception);
+        }
+    }
+
     private Instant dataExpiracao() {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
 
+    private record TokenVerificado(UsuarioAutenticado usuario, Instant expiraEm) {
+    }
+
+    private static class ExpiracaoDoToken implements Expiry<String, TokenVerificado> {
+
+        @Override
+        public long expireAfterCreate(String chave, TokenVerificado token, long agora) {
+            if (token.expiraEm() == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(Instant.now(), token.expiraEm()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, TokenVerificado token, long agora, long duracaoAtual) {
+            return expireAfterCreate(chave, token, agora);
+        }
+
+        @Override
+        public long expireAfterRead(String chave, TokenVerificado token, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+
 }
@@ -0,0 +1,16 @@
+package med.voll.api.infra.sql;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public record ConsumoDeSql(String requisicao, long statements, long linhas, Duration tempoConexao,
+                           Map<String, Long> execucoesPorSql) {
+
+    public Map<String, Long> repetidosAoMenos(long vezes) {
+        return execucoesPorSql.entrySet().stream()
+                .filter(execucoes -> execucoes.getValue() >= vezes)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+}
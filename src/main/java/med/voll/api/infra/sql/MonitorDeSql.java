@@ -0,0 +1,138 @@
+package med.voll.api.infra.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listener do proxy do DataSource que acumula, na thread do request, os statements executados, as linhas
+ * lidas e o tempo em que houve conexão aberta. Fora de um request monitorado as chamadas são ignoradas.
+ * Tarefas que o request entrega a outras threads levam o mesmo contador com {@link #propagar(Runnable)}.
+ */
+public class MonitorDeSql implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final ThreadLocal<Contador> ATUAL = new ThreadLocal<>();
+
+    static Contador iniciar() {
+        var contador = new Contador();
+        ATUAL.set(contador);
+        return contador;
+    }
+
+    static void vincular(Contador contador) {
+        ATUAL.set(contador);
+    }
+
+    static void desvincular() {
+        ATUAL.remove();
+    }
+
+    static Runnable propagar(Runnable tarefa) {
+        var contador = ATUAL.get();
+        if (contador == null) {
+            return tarefa;
+        }
+
+        return () -> {
+            var anterior = ATUAL.get();
+            ATUAL.set(contador);
+            try {
+                tarefa.run();
+            } finally {
+                if (anterior == null) {
+                    ATUAL.remove();
+                } else {
+                    ATUAL.set(anterior);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        var contador = ATUAL.get();
+        if (contador == null) {
+            return;
+        }
+
+        contador.registrarExecucao(consultas);
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext contexto) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext contexto) {
+        var contador = ATUAL.get();
+        if (contador == null || contexto.getThrown() != null) {
+            return;
+        }
+
+        var alvo = contexto.getTarget();
+        var metodo = contexto.getMethod().getName();
+        if (alvo instanceof DataSource && metodo.equals("getConnection")) {
+            contador.abrirConexao();
+        } else if (alvo instanceof Connection && metodo.equals("close")) {
+            contador.fecharConexao();
+        } else if (alvo instanceof ResultSet && metodo.equals("next") && Boolean.TRUE.equals(contexto.getResult())) {
+            contador.contarLinha();
+        }
+    }
+
+    /**
+     * Compartilhado entre a thread do request e as que executam suas tarefas assíncronas, por isso sincronizado.
+     */
+    static class Contador {
+
+        private final Map<String, Long> execucoesPorSql = new HashMap<>();
+        private long statements;
+        private long linhas;
+        private int conexoesAbertas;
+        private long inicioConexao;
+        private long nanosComConexao;
+
+        synchronized void registrarExecucao(List<QueryInfo> consultas) {
+            statements++;
+            consultas.forEach(consulta -> execucoesPorSql.merge(consulta.getQuery(), 1L, Long::sum));
+        }
+
+        synchronized void contarLinha() {
+            linhas++;
+        }
+
+        synchronized void abrirConexao() {
+            if (conexoesAbertas++ == 0) {
+                inicioConexao = System.nanoTime();
+            }
+        }
+
+        synchronized void fecharConexao() {
+            if (conexoesAbertas > 0 && --conexoesAbertas == 0) {
+                nanosComConexao += System.nanoTime() - inicioConexao;
+            }
+        }
+
+        synchronized ConsumoDeSql gerar(String requisicao) {
+            if (conexoesAbertas > 0) {
+                nanosComConexao += System.nanoTime() - inicioConexao;
+            }
+            return new ConsumoDeSql(requisicao, statements, linhas, Duration.ofNanos(nanosComConexao),
+                    Map.copyOf(execucoesPorSql));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package med.voll.api.infra.sql;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Mede o SQL emitido por cada request (incluindo os filtros de segurança) e registra em log os requests que
+ * estouram o orçamento configurado ou que repetem o mesmo statement várias vezes, o sintoma típico de N+1.
+ * Em requests assíncronos (login e exportações) a medição só é concluída quando o {@code AsyncContext} termina,
+ * somando o que rodou nas threads do executor e no despacho de volta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "api.sql.monitor.habilitado", havingValue = "true")
+public class OrcamentoSqlFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrcamentoSqlFilter.class);
+    private static final String ATRIBUTO_CONTADOR = OrcamentoSqlFilter.class.getName() + ".contador";
+
+    @Value("${api.sql.orcamento.statements:20}")
+    private long maximoStatements;
+
+    @Value("${api.sql.orcamento.linhas:1000}")
+    private long maximoLinhas;
+
+    @Value("${api.sql.orcamento.tempo-conexao:500ms}")
+    private Duration maximoTempoConexao;
+
+    @Value("${api.sql.n-mais-um.repeticoes:5}")
+    private long repeticoesSuspeitas;
+
+    private final List<Consumer<ConsumoDeSql>> observadores = new CopyOnWriteArrayList<>();
+
+    public void aoConcluir(Consumer<ConsumoDeSql> observador) {
+        observadores.add(observador);
+    }
+
+    public void remover(Consumer<ConsumoDeSql> observador) {
+        observadores.remove(observador);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            continuarAssincrono(request, response, filterChain);
+            return;
+        }
+
+        var requisicao = request.getMethod() + " " + request.getRequestURI();
+        var contador = MonitorDeSql.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MonitorDeSql.desvincular();
+            if (request.isAsyncStarted()) {
+                request.setAttribute(ATRIBUTO_CONTADOR, contador);
+                request.getAsyncContext().addListener(new ConclusaoAssincrona(contador, requisicao));
+            } else {
+                concluir(contador.gerar(requisicao));
+            }
+        }
+    }
+
+    private void continuarAssincrono(HttpServletRequest request, HttpServletResponse response,
+                                     FilterChain filterChain) throws ServletException, IOException {
+        if (!(request.getAttribute(ATRIBUTO_CONTADOR) instanceof MonitorDeSql.Contador contador)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        MonitorDeSql.vincular(contador);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MonitorDeSql.desvincular();
+        }
+    }
+
+    private void concluir(ConsumoDeSql consumo) {
+        avaliar(consumo);
+        observadores.forEach(observador -> observador.accept(consumo));
+    }
+
+    private void avaliar(ConsumoDeSql consumo) {
+        if (consumo.statements() > maximoStatements || consumo.linhas() > maximoLinhas
+                || consumo.tempoConexao().compareTo(maximoTempoConexao) > 0) {
+            log.warn("{} estourou o orçamento de SQL: {} statements, {} linhas, conexão aberta por {} ms",
+                    consumo.requisicao(), consumo.statements(), consumo.linhas(), consumo.tempoConexao().toMillis());
+        }
+
+        consumo.repetidosAoMenos(repeticoesSuspeitas).forEach((sql, vezes) ->
+                log.warn("{} executou {} vezes o mesmo statement, possível N+1: {}", consumo.requisicao(), vezes, sql));
+    }
+
+    private class ConclusaoAssincrona implements AsyncListener {
+
+        private final MonitorDeSql.Contador contador;
+        private final String requisicao;
+
+        private ConclusaoAssincrona(MonitorDeSql.Contador contador, String requisicao) {
+            this.contador = contador;
+            this.requisicao = requisicao;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent evento) {
+            concluir(contador.gerar(requisicao));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent evento) {
+        }
+
+        @Override
+        public void onError(AsyncEvent evento) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent evento) {
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package med.voll.api.infra.sql;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Leva o contador do request para as tarefas executadas em outras threads. O Spring Boot aplica este decorator
+ * ao executor das requisições assíncronas ({@code StreamingResponseBody} das exportações) e o
+ * {@code ExecutorDeLogin} o aplica às verificações de senha.
+ */
+@Component
+@ConditionalOnProperty(name = "api.sql.monitor.habilitado", havingValue = "true")
+public class PropagadorDoMonitorDeSql implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable tarefa) {
+        return MonitorDeSql.propagar(tarefa);
+    }
+}
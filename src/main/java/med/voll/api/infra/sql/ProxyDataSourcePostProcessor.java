@@ -0,0 +1,29 @@
+package med.voll.api.infra.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+@ConditionalOnProperty(name = "api.sql.monitor.habilitado", havingValue = "true")
+public class ProxyDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final String DATA_SOURCE = "dataSource";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && beanName.equals(DATA_SOURCE)) {
+            var monitor = new MonitorDeSql();
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(monitor)
+                    .methodListener(monitor)
+                    .proxyResultSet()
+                    .build();
+        }
+        return bean;
+    }
+}
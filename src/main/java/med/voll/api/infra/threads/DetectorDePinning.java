@@ -0,0 +1,70 @@
+package med.voll.api.infra.threads;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Registra, via JFR, os trechos em que uma thread virtual ficou presa à thread carregadora (por exemplo,
+ * blocos synchronized no caminho do driver JDBC), para que os pontos de pinning possam ser corrigidos.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class DetectorDePinning {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectorDePinning.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    @Value("${api.threads.pinning.limite:20ms}")
+    private Duration limite;
+
+    @Value("${api.threads.pinning.profundidade-stack:8}")
+    private int profundidadeStack;
+
+    private final AtomicLong ocorrencias = new AtomicLong();
+    private RecordingStream stream;
+
+    @PostConstruct
+    void iniciar() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(limite).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        stream.close();
+    }
+
+    public long getOcorrencias() {
+        return ocorrencias.get();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        ocorrencias.incrementAndGet();
+        log.warn("Thread virtual presa à carregadora por {} ms:\n{}", evento.getDuration().toMillis(), stack(evento));
+    }
+
+    private String stack(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return "\t(stack indisponível)";
+        }
+
+        return evento.getStackTrace().getFrames().stream()
+                .limit(profundidadeStack)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,2 @@
+create index ix_medicos_ativo_nome_id on medicos(ativo, nome, id);
+create index ix_pacientes_nome_id on pacientes(nome, id);
@@ -0,0 +1,2 @@
+create index ix_medicos_ativo_especialidade_uf_cidade on medicos(ativo, especialidade, uf, cidade, nome, id);
+create index ix_medicos_ativo_uf_cidade on medicos(ativo, uf, cidade, nome, id);
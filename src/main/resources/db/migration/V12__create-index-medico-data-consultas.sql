@@ -0,0 +1 @@
+create index ix_consultas_medico_id_data on consultas(medico_id, data);
@@ -0,0 +1,7 @@
+alter table medicos
+    add column versao bigint not null default 0,
+    add column atualizado_em datetime(6) not null default current_timestamp(6);
+
+alter table pacientes
+    add column versao bigint not null default 0,
+    add column atualizado_em datetime(6) not null default current_timestamp(6);
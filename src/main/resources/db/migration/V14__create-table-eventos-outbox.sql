@@ -0,0 +1,17 @@
+create table eventos_outbox(
+
+    id bigint not null auto_increment,
+    agregado varchar(50) not null,
+    id_agregado bigint not null,
+    tipo varchar(100) not null,
+    payload json not null,
+    criado_em datetime(6) not null default current_timestamp(6),
+    disponivel_em datetime(6) not null default current_timestamp(6),
+    tentativas int not null default 0,
+    ultimo_erro varchar(500),
+
+    primary key(id)
+
+);
+
+create index ix_eventos_outbox_agregado on eventos_outbox(agregado, id_agregado, id);
@@ -0,0 +1,14 @@
+alter table consultas add column motivo_cancelamento varchar(100);
+
+update consultas c
+join (
+    select medico_id, data, min(id) as id_mantido
+    from consultas
+    group by medico_id, data
+    having count(*) > 1
+) duplicadas on duplicadas.medico_id = c.medico_id and duplicadas.data = c.data and c.id <> duplicadas.id_mantido
+set c.motivo_cancelamento = 'AGENDAMENTO_DUPLICADO';
+
+alter table consultas add column data_ativa datetime as (if(motivo_cancelamento is null, data, null)) virtual;
+
+create unique index ux_consultas_medico_id_data_ativa on consultas(medico_id, data_ativa);
@@ -0,0 +1 @@
+create index ix_consultas_paciente_id_data on consultas(paciente_id, data);
@@ -0,0 +1,7 @@
+create table consultas_seq(
+
+    next_val bigint not null
+
+);
+
+insert into consultas_seq(next_val) select coalesce(max(id), 0) + 1 from consultas;
@@ -0,0 +1,48 @@
+package med.voll.api.integration;
+
+import med.voll.api.infra.sql.ConsumoDeSql;
+import med.voll.api.infra.sql.OrcamentoSqlFilter;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Captura o consumo de SQL dos requests feitos pelo teste. O filtro conclui a medição depois que a resposta
+ * já pode ter chegado ao cliente, por isso a leitura aguarda o registro do request esperado.
+ */
+public class SqlPorRequisicao implements Consumer<ConsumoDeSql>, AutoCloseable {
+
+    private static final long ESPERA_MAXIMA_SEGUNDOS = 5;
+
+    private final OrcamentoSqlFilter filtro;
+    private final BlockingQueue<ConsumoDeSql> concluidos = new LinkedBlockingQueue<>();
+
+    public SqlPorRequisicao(OrcamentoSqlFilter filtro) {
+        this.filtro = filtro;
+        filtro.aoConcluir(this);
+    }
+
+    @Override
+    public void accept(ConsumoDeSql consumo) {
+        concluidos.add(consumo);
+    }
+
+    public ConsumoDeSql aguardar(String requisicao) throws InterruptedException {
+        var consumo = concluidos.poll(ESPERA_MAXIMA_SEGUNDOS, TimeUnit.SECONDS);
+        while (consumo != null && !consumo.requisicao().equals(requisicao)) {
+            consumo = concluidos.poll(ESPERA_MAXIMA_SEGUNDOS, TimeUnit.SECONDS);
+        }
+
+        if (consumo == null) {
+            throw new AssertionError("Nenhum consumo de SQL registrado para " + requisicao);
+        }
+        return consumo;
+    }
+
+    @Override
+    public void close() {
+        filtro.remover(this);
+    }
+}
@@ -0,0 +1,181 @@
+package med.voll.api.integration.controller;
+
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.*;
+import med.voll.api.domain.usuario.DadosAutenticacao;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.sql.OrcamentoSqlFilter;
+import med.voll.api.integration.AbstractIntegrationTest;
+import med.voll.api.integration.SqlPorRequisicao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O perfil de teste desliga o {@link CacheListagemMedicos}; aqui ele é ligado para verificar os acertos, o
+ * ETag calculado sobre os bytes guardados e a invalidação depois de PUT e DELETE.
+ */
+@TestPropertySource(properties = "api.cache.listagem-medicos.habilitado=true")
+class CacheListagemMedicosIT extends AbstractIntegrationTest {
+
+    private static final String LISTAGEM = "/medicos?size=5&sort=nome";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private CacheListagemMedicos cache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private OrcamentoSqlFilter orcamentoSql;
+
+    private SqlPorRequisicao sql;
+
+    private String token;
+
+    private final List<Medico> medicos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository.deleteAll();
+        usuarioRepository.save(new Usuario(null, "ana.souza@voll.med", passwordEncoder.encode("123456")));
+
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var auth = new HttpEntity<>(new DadosAutenticacao("ana.souza@voll.med", "123456"), headers);
+        var tokenRaw = restTemplate.exchange("/login", HttpMethod.POST, auth, String.class).getBody();
+        Assertions.assertNotNull(tokenRaw);
+        token = tokenRaw.substring(10, tokenRaw.length() - 2);
+
+        for (var i = 1; i <= 2; i++) {
+            medicos.add(medicoRepository.save(new Medico(new DadosCadastroMedico(
+                    "Aaa Cache " + i, "cache" + i + ".medico@voll.med", "1199999999",
+                    "8800" + i, Especialidade.CARDIOLOGIA, retornaEndereco()))));
+        }
+        // gravados direto no repositório: o evento descarta as páginas guardadas por testes anteriores
+        medicos.forEach(medico -> eventPublisher.publishEvent(new MedicoAlteradoEvent(medico)));
+        sql = new SqlPorRequisicao(orcamentoSql);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sql.close();
+        medicoRepository.deleteAll(medicos);
+    }
+
+    private DadosEndereco retornaEndereco() {
+        return new DadosEndereco(
+                "Rua das Flores", "Bairro Exemplo", "01000000",
+                "São Paulo", "SP", "Apto 123", "123"
+        );
+    }
+
+    @Test
+    void deveResponderDoCacheComOETagDosBytesGuardados() throws Exception {
+        var primeira = listar(null);
+        assertThat(primeira.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sql.aguardar("GET /medicos").execucoesPorSql().keySet())
+                .anyMatch(consulta -> consulta.contains("from medicos"));
+        var acertos = cache.estatisticas().hitCount();
+
+        var segunda = listar(null);
+
+        assertThat(segunda.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(segunda.getBody()).isEqualTo(primeira.getBody());
+        assertThat(segunda.getHeaders().getETag()).isEqualTo(primeira.getHeaders().getETag());
+        assertThat(segunda.getHeaders().getETag())
+                .isEqualTo("\"" + DigestUtils.md5DigestAsHex(segunda.getBody()) + "\"");
+        assertThat(cache.estatisticas().hitCount()).isEqualTo(acertos + 1);
+        assertThat(sql.aguardar("GET /medicos").execucoesPorSql().keySet())
+                .noneMatch(consulta -> consulta.contains("from medicos"));
+    }
+
+    @Test
+    void deveResponderNotModifiedDoCacheQuandoOETagConfere() {
+        var etag = listar(null).getHeaders().getETag();
+        var acertos = cache.estatisticas().hitCount();
+
+        var response = listar(etag);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(response.getBody()).isNull();
+        assertThat(cache.estatisticas().hitCount()).isEqualTo(acertos + 1);
+    }
+
+    @Test
+    void deveInvalidarAListagemDepoisDeUmPut() {
+        var antes = listar(null);
+        var medico = medicos.get(0);
+
+        var headers = autenticado();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var atualizacao = new DadosAtualizacaoMedico(medico.getId(), "Aaa Cache Renomeado", null, null);
+        var put = restTemplate.exchange("/medicos", HttpMethod.PUT, new HttpEntity<>(atualizacao, headers), String.class);
+        assertThat(put.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        var depois = listar(antes.getHeaders().getETag());
+
+        assertThat(depois.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(depois.getHeaders().getETag()).isNotEqualTo(antes.getHeaders().getETag());
+        assertThat(new String(depois.getBody())).contains("Aaa Cache Renomeado");
+    }
+
+    @Test
+    void deveInvalidarAListagemDepoisDeUmDelete() {
+        var antes = listar(null);
+        var medico = medicos.get(0);
+        assertThat(new String(antes.getBody())).contains("\"id\":" + medico.getId() + ",");
+
+        var delete = restTemplate.exchange("/medicos/" + medico.getId(), HttpMethod.DELETE,
+                new HttpEntity<>(autenticado()), String.class);
+        assertThat(delete.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        var depois = listar(antes.getHeaders().getETag());
+
+        assertThat(depois.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(depois.getHeaders().getETag()).isNotEqualTo(antes.getHeaders().getETag());
+        assertThat(new String(depois.getBody())).doesNotContain("\"id\":" + medico.getId() + ",");
+    }
+
+    private ResponseEntity<byte[]> listar(String ifNoneMatch) {
+        var headers = autenticado();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange(LISTAGEM, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+
+    private HttpHeaders autenticado() {
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+
+}
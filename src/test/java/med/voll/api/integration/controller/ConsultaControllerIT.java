@@ -0,0 +1,460 @@
+package med.voll.api.integration.controller;
+
+import med.voll.api.domain.consulta.Consulta;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.consulta.IndiceDeHorarios;
+import med.voll.api.domain.consulta.MotivoCancelamento;
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoAlteradoEvent;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.DadosCadastroPaciente;
+import med.voll.api.domain.paciente.Paciente;
+import med.voll.api.domain.paciente.PacienteRepository;
+import med.voll.api.domain.usuario.DadosAutenticacao;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.sql.OrcamentoSqlFilter;
+import med.voll.api.integration.AbstractIntegrationTest;
+import med.voll.api.integration.SqlPorRequisicao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.JsonNode;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsultaControllerIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private IndiceDeHorarios indiceDeHorarios;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private OrcamentoSqlFilter orcamentoSql;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private SqlPorRequisicao sql;
+
+    private String token;
+
+    private Medico medico;
+
+    private final List<Paciente> pacientes = new ArrayList<>();
+
+    private final List<Consulta> consultas = new ArrayList<>();
+
+    private final String BASE_URL = "/consultas";
+
+    private final LocalDate DIA = LocalDate.now().plusDays(7).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository.deleteAll();
+        usuarioRepository.save(new Usuario(null, "ana.souza@voll.med", passwordEncoder.encode("123456")));
+
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var auth = new HttpEntity<>(new DadosAutenticacao("ana.souza@voll.med", "123456"), headers);
+        var tokenRaw = restTemplate.exchange("/login", HttpMethod.POST, auth, String.class).getBody();
+        Assertions.assertNotNull(tokenRaw);
+        token = tokenRaw.substring(10, tokenRaw.length() - 2);
+
+        medico = medicoRepository.save(new Medico(new DadosCadastroMedico(
+                "Carla Mendes", "carla.consultas@voll.med", "1199999999",
+                "78123", Especialidade.CARDIOLOGIA, retornaEndereco())));
+
+        for (var hora = 8; hora <= 10; hora++) {
+            var paciente = pacienteRepository.save(new Paciente(new DadosCadastroPaciente(
+                    "Paciente " + hora, "paciente" + hora + ".consultas@voll.med", "11988888888",
+                    "000.000.0%02d-00".formatted(hora), retornaEndereco())));
+            pacientes.add(paciente);
+            consultas.add(consultaRepository.save(new Consulta(null, medico, paciente, DIA.atTime(hora, 0))));
+        }
+        sql = new SqlPorRequisicao(orcamentoSql);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sql.close();
+        consultaRepository.deleteAll(consultaRepository.findAll());
+        pacienteRepository.deleteAll(pacientes);
+        medicoRepository.delete(medico);
+    }
+
+    private DadosEndereco retornaEndereco() {
+        return new DadosEndereco(
+                "Rua das Flores", "Bairro Exemplo", "01000000",
+                "São Paulo", "SP", "Apto 123", "123"
+        );
+    }
+
+    @Test
+    void deveListarConsultasDoMedicoComUmaQueryPorPagina() throws Exception {
+        var primeira = listar("idMedico=" + medico.getId() + "&inicio=" + DIA + "&fim=" + DIA + "&tamanho=2");
+
+        assertThat(primeira.get("conteudo").size()).isEqualTo(2);
+        assertThat(primeira.get("conteudo").get(0).get("nomePaciente").asText()).isEqualTo("Paciente 8");
+        assertThat(sql.aguardar("GET " + BASE_URL).statements()).isEqualTo(1);
+
+        var cursor = primeira.get("proximoCursor").asText();
+        var segunda = listar("idMedico=" + medico.getId() + "&inicio=" + DIA + "&fim=" + DIA + "&tamanho=2&cursor=" + cursor);
+
+        assertThat(segunda.get("conteudo").size()).isEqualTo(1);
+        assertThat(segunda.get("conteudo").get(0).get("nomeMedico").asText()).isEqualTo("Carla Mendes");
+        assertThat(segunda.get("proximoCursor").isNull()).isTrue();
+        assertThat(sql.aguardar("GET " + BASE_URL).statements()).isEqualTo(1);
+    }
+
+    @Test
+    void deveListarConsultasDoPaciente() throws Exception {
+        var paciente = pacientes.get(0);
+        var pagina = listar("idPaciente=" + paciente.getId() + "&inicio=" + DIA + "&fim=" + DIA.plusDays(1));
+
+        assertThat(pagina.get("conteudo").size()).isEqualTo(1);
+        assertThat(pagina.get("conteudo").get(0).get("idMedico").asLong()).isEqualTo(medico.getId());
+        assertThat(sql.aguardar("GET " + BASE_URL).statements()).isEqualTo(1);
+    }
+
+    @Test
+    void naoDeveListarSemMedicoOuPaciente() {
+        var response = restTemplate.exchange(BASE_URL + "?inicio=" + DIA + "&fim=" + DIA,
+                HttpMethod.GET, new HttpEntity<>(autenticado()), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private JsonNode listar(String parametros) throws Exception {
+        var response = restTemplate.exchange(BASE_URL + "?" + parametros,
+                HttpMethod.GET, new HttpEntity<>(autenticado()), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return new ObjectMapper().readTree(response.getBody());
+    }
+
+    private HttpHeaders autenticado() {
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+
+    @Test
+    void deveCancelarConsultaELiberarOHorario() throws Exception {
+        var data = DIA.plusDays(1).atTime(14, 0);
+        var idConsulta = agendar(pacientes.get(0), data);
+        assertThat(indiceDeHorarios.isOcupado(medico.getId(), data)).isTrue();
+
+        var response = cancelar(idConsulta, MotivoCancelamento.PACIENTE_DESISTIU);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(consultaRepository.findById(idConsulta).orElseThrow().getMotivoCancelamento())
+                .isEqualTo(MotivoCancelamento.PACIENTE_DESISTIU);
+        assertThat(indiceDeHorarios.isOcupado(medico.getId(), data)).isFalse();
+    }
+
+    @Test
+    void naoDeveCancelarConsultaJaCancelada() throws Exception {
+        var idConsulta = agendar(pacientes.get(0), DIA.plusDays(1).atTime(14, 0));
+        cancelar(idConsulta, MotivoCancelamento.OUTROS);
+
+        var response = cancelar(idConsulta, MotivoCancelamento.OUTROS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("Consulta já cancelada");
+    }
+
+    @Test
+    void naoDeveCancelarConsultaInexistente() {
+        var response = cancelar(999_999L, MotivoCancelamento.OUTROS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void deveCancelarAsConsultasFuturasAoExcluirOMedico() throws Exception {
+        var primeiroHorario = DIA.plusDays(1).atTime(14, 0);
+        var segundoHorario = DIA.plusDays(1).atTime(15, 0);
+        var primeira = agendar(pacientes.get(0), primeiroHorario);
+        var segunda = agendar(pacientes.get(1), segundoHorario);
+
+        var response = restTemplate.exchange("/medicos/" + medico.getId(), HttpMethod.DELETE,
+                new HttpEntity<>(autenticado()), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(consultaRepository.findAllById(List.of(primeira, segunda)))
+                .extracting(Consulta::getMotivoCancelamento)
+                .containsOnly(MotivoCancelamento.MEDICO_INATIVADO);
+        assertThat(consultaRepository.findAllById(consultas.stream().map(Consulta::getId).toList()))
+                .extracting(Consulta::getMotivoCancelamento)
+                .containsOnly(MotivoCancelamento.MEDICO_INATIVADO);
+        assertThat(indiceDeHorarios.isOcupado(medico.getId(), primeiroHorario)).isFalse();
+        assertThat(indiceDeHorarios.isOcupado(medico.getId(), segundoHorario)).isFalse();
+    }
+
+    @Test
+    void deveValidarOAgendamentoComUmaUnicaConsulta() throws Exception {
+        agendar(pacientes.get(0), DIA.plusDays(1).atTime(14, 0));
+
+        var consumo = sql.aguardar("POST " + BASE_URL);
+        var selects = consumo.execucoesPorSql().entrySet().stream()
+                .filter(execucao -> execucao.getKey().strip().toLowerCase().startsWith("select"))
+                .filter(execucao -> !execucao.getKey().contains("consultas_seq"))
+                .filter(execucao -> !execucao.getKey().contains("for update"))
+                .toList();
+        assertThat(selects).singleElement().satisfies(select -> {
+            assertThat(select.getKey()).contains("paciente_com_consulta_no_dia");
+            assertThat(select.getValue()).isEqualTo(1L);
+        });
+        assertThat(consumo.execucoesPorSql().entrySet())
+                .filteredOn(execucao -> execucao.getKey().contains("from pacientes where id in"))
+                .singleElement()
+                .satisfies(trava -> assertThat(trava.getKey()).contains("for update"));
+        assertThat(consumo.execucoesPorSql().entrySet())
+                .filteredOn(execucao -> execucao.getKey().strip().startsWith("insert into consultas"))
+                .singleElement()
+                .satisfies(insert -> assertThat(insert.getValue()).isEqualTo(1L));
+        assertThat(consumo.execucoesPorSql().keySet())
+                .anyMatch(chave -> chave.strip().startsWith("insert into eventos_outbox"));
+    }
+
+    @Test
+    void deveAceitarUmaUnicaConsultaNoDiaParaAgendamentosConcorrentesDoMesmoPaciente() throws Exception {
+        var tercaAsDuas = DIA.plusDays(1).atTime(14, 0);
+        var headers = autenticado();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var tentativas = new ArrayList<CompletableFuture<ResponseEntity<String>>>();
+        for (var hora = 0; hora < 4; hora++) {
+            var requisicao = new HttpEntity<>(itemDoLote(pacientes.get(0), tercaAsDuas.plusHours(hora)), headers);
+            tentativas.add(CompletableFuture.supplyAsync(() ->
+                    restTemplate.exchange(BASE_URL, HttpMethod.POST, requisicao, String.class)));
+        }
+
+        var status = tentativas.stream().map(CompletableFuture::join).map(ResponseEntity::getStatusCode).toList();
+
+        assertThat(status).filteredOn(HttpStatus.OK::equals).hasSize(1);
+        assertThat(status).filteredOn(HttpStatus.BAD_REQUEST::equals).hasSize(3);
+        assertThat(consultaRepository.count()).isEqualTo(consultas.size() + 1);
+    }
+
+    @Test
+    void deveAplicarAsMesmasRegrasAoAgendamentoEmLote() throws Exception {
+        var tercaAsDuas = DIA.plusDays(1).atTime(14, 0);
+        var itens = List.of(
+                itemDoLote(pacientes.get(0), tercaAsDuas),
+                itemDoLote(pacientes.get(0), tercaAsDuas.plusHours(1)),
+                itemDoLote(pacientes.get(1), DIA.minusDays(1).atTime(10, 0)),
+                itemDoLote(pacientes.get(2), tercaAsDuas.withHour(20)));
+        var headers = autenticado();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        var response = restTemplate.exchange(BASE_URL + "/lote", HttpMethod.POST,
+                new HttpEntity<>(Map.of("consultas", itens), headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        var resultados = new ObjectMapper().readTree(response.getBody()).get("resultados");
+        assertThat(resultados.get(0).get("erro").isNull()).isTrue();
+        assertThat(resultados.get(1).get("erro").asText()).contains("Paciente já possui uma consulta agendada nesse dia");
+        assertThat(resultados.get(2).get("erro").asText()).contains("horário de funcionamento");
+        assertThat(resultados.get(3).get("erro").asText()).contains("horário de funcionamento");
+
+        var consumo = sql.aguardar("POST " + BASE_URL + "/lote");
+        assertThat(consumo.execucoesPorSql().entrySet())
+                .filteredOn(execucao -> execucao.getKey().contains("paciente_com_consulta_no_dia"))
+                .singleElement()
+                .satisfies(select -> assertThat(select.getValue()).isEqualTo(1L));
+    }
+
+    @Test
+    void deveAgendarOLoteComUmUnicoInsertEmLote() throws Exception {
+        var tercaAsDuas = DIA.plusDays(1).atTime(14, 0);
+        var itens = List.of(
+                itemDoLote(pacientes.get(0), tercaAsDuas),
+                itemDoLote(pacientes.get(1), tercaAsDuas.plusHours(1)),
+                itemDoLote(pacientes.get(2), tercaAsDuas.plusHours(2)));
+
+        var resultado = agendarEmLote(itens);
+
+        assertThat(resultado.get("agendadas").asLong()).isEqualTo(3);
+        assertThat(resultado.get("rejeitadas").asLong()).isZero();
+        var ids = new ArrayList<Long>();
+        resultado.get("resultados").forEach(item -> ids.add(item.get("consulta").get("id").asLong()));
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(consultaRepository.findAllById(ids)).hasSize(3);
+
+        var consumo = sql.aguardar("POST " + BASE_URL + "/lote");
+        assertThat(consumo.execucoesPorSql().entrySet())
+                .filteredOn(execucao -> execucao.getKey().strip().startsWith("insert into consultas"))
+                .singleElement()
+                .satisfies(insert -> assertThat(insert.getValue()).isEqualTo(1L));
+        // pooled-lo reserva 50 ids por ida à tabela de sequência
+        assertThat(consumo.execucoesPorSql().entrySet().stream()
+                .filter(execucao -> execucao.getKey().contains("consultas_seq"))
+                .mapToLong(Map.Entry::getValue)
+                .sum()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void deveReportarAsFalhasParciaisDoLote() throws Exception {
+        var tercaAsDuas = DIA.plusDays(1).atTime(14, 0);
+        var itens = List.of(
+                itemDoLote(pacientes.get(0), tercaAsDuas),
+                itemDoLote(pacientes.get(1), tercaAsDuas),
+                Map.<String, Object>of(
+                        "idMedico", medico.getId(),
+                        "idPaciente", 999_999L,
+                        "data", tercaAsDuas.plusHours(1).format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))),
+                itemDoLote(pacientes.get(2), tercaAsDuas.plusHours(2)));
+
+        var resultado = agendarEmLote(itens);
+
+        assertThat(resultado.get("agendadas").asLong()).isEqualTo(2);
+        assertThat(resultado.get("rejeitadas").asLong()).isEqualTo(2);
+        var resultados = resultado.get("resultados");
+        for (var indice = 0; indice < itens.size(); indice++) {
+            assertThat(resultados.get(indice).get("indice").asInt()).isEqualTo(indice);
+        }
+        assertThat(resultados.get(0).get("consulta").get("id").isNumber()).isTrue();
+        assertThat(resultados.get(1).get("consulta").isNull()).isTrue();
+        assertThat(resultados.get(1).get("erro").asText()).isEqualTo("Médico já possui outra consulta agendada nesse horário");
+        assertThat(resultados.get(2).get("erro").asText()).isEqualTo("Paciente não encontrado");
+        assertThat(resultados.get(3).get("consulta").get("id").isNumber()).isTrue();
+        assertThat(consultaRepository.count()).isEqualTo(consultas.size() + 2);
+        assertThat(indiceDeHorarios.isOcupado(medico.getId(), tercaAsDuas.plusHours(1))).isFalse();
+    }
+
+    @Test
+    void deveRejeitarSoOItemQueViolaOIndiceUnicoNoFlushDoLote() throws Exception {
+        var tercaAsDuas = DIA.plusDays(1).atTime(14, 0);
+        // gravada direto no repositório, sem passar pelo IndiceDeHorarios: só o índice único do banco a conhece
+        consultas.add(consultaRepository.save(new Consulta(null, medico, pacientes.get(2), tercaAsDuas.plusHours(1))));
+        var itens = List.of(
+                itemDoLote(pacientes.get(0), tercaAsDuas),
+                itemDoLote(pacientes.get(1), tercaAsDuas.plusHours(1)));
+
+        var resultado = agendarEmLote(itens);
+
+        assertThat(resultado.get("agendadas").asLong()).isEqualTo(1);
+        assertThat(resultado.get("rejeitadas").asLong()).isEqualTo(1);
+        var resultados = resultado.get("resultados");
+        assertThat(resultados.get(0).get("consulta").get("id").isNumber()).isTrue();
+        assertThat(resultados.get(1).get("erro").asText()).isEqualTo("Médico já possui outra consulta agendada nesse horário");
+        assertThat(consultaRepository.count()).isEqualTo(consultas.size() + 1);
+    }
+
+    private JsonNode agendarEmLote(List<Map<String, Object>> itens) throws Exception {
+        var headers = autenticado();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        var response = restTemplate.exchange(BASE_URL + "/lote", HttpMethod.POST,
+                new HttpEntity<>(Map.of("consultas", itens), headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return new ObjectMapper().readTree(response.getBody());
+    }
+
+    private Map<String, Object> itemDoLote(Paciente paciente, LocalDateTime data) {
+        return Map.of(
+                "idMedico", medico.getId(),
+                "idPaciente", paciente.getId(),
+                "data", data.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+    }
+
+    @Test
+    void deveOcultarNaAgendaOsHorariosOcupadosEForaDoExpediente() throws Exception {
+        var agenda = consultarAgenda(DIA.minusDays(1), DIA.plusDays(1));
+
+        assertThat(agenda.get("dias").size()).isEqualTo(3);
+        assertThat(horariosLivres(agenda, 0)).isEmpty();
+        assertThat(horariosLivres(agenda, 1)).containsExactly(
+                "07:00", "11:00", "12:00", "13:00", "14:00", "15:00", "16:00", "17:00", "18:00");
+        assertThat(horariosLivres(agenda, 2)).hasSize(12).startsWith("07:00").endsWith("18:00");
+    }
+
+    @Test
+    void deveRefletirNaAgendaOsAgendamentosECancelamentosDepoisDoCache() throws Exception {
+        var dia = DIA.plusDays(1);
+        assertThat(horariosLivres(consultarAgenda(dia, dia), 0)).contains("14:00");
+
+        var idConsulta = agendar(pacientes.get(0), dia.atTime(14, 0));
+
+        assertThat(horariosLivres(consultarAgenda(dia, dia), 0)).hasSize(11).doesNotContain("14:00");
+
+        assertThat(cancelar(idConsulta, MotivoCancelamento.PACIENTE_DESISTIU).getStatusCode())
+                .isEqualTo(HttpStatus.NO_CONTENT);
+
+        assertThat(horariosLivres(consultarAgenda(dia, dia), 0)).hasSize(12).contains("14:00");
+    }
+
+    private JsonNode consultarAgenda(LocalDate inicio, LocalDate fim) throws Exception {
+        // gravado direto no repositório: o evento coloca o médico na escala, que é quem diz se ele está ativo
+        eventPublisher.publishEvent(new MedicoAlteradoEvent(medico));
+        var response = restTemplate.exchange("/medicos/" + medico.getId() + "/agenda?inicio=" + inicio + "&fim=" + fim,
+                HttpMethod.GET, new HttpEntity<>(autenticado()), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return new ObjectMapper().readTree(response.getBody());
+    }
+
+    private List<String> horariosLivres(JsonNode agenda, int dia) {
+        var horarios = new ArrayList<String>();
+        agenda.get("dias").get(dia).get("horariosLivres").forEach(horario -> horarios.add(horario.asText()));
+        return horarios;
+    }
+
+    private Long agendar(Paciente paciente, LocalDateTime data) throws Exception {
+        var headers = autenticado();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var dados = Map.of(
+                "idMedico", medico.getId(),
+                "idPaciente", paciente.getId(),
+                "data", data.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+
+        var response = restTemplate.exchange(BASE_URL, HttpMethod.POST, new HttpEntity<>(dados, headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return new ObjectMapper().readTree(response.getBody()).get("id").asLong();
+    }
+
+    private ResponseEntity<String> cancelar(Long idConsulta, MotivoCancelamento motivo) {
+        return restTemplate.exchange(BASE_URL + "/" + idConsulta + "?motivo=" + motivo,
+                HttpMethod.DELETE, new HttpEntity<>(autenticado()), String.class);
+    }
+}
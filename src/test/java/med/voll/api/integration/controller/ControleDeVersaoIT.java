@@ -0,0 +1,211 @@
+package med.voll.api.integration.controller;
+
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.DadosAtualizacaoMedico;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.DadosAtualizacaoPaciente;
+import med.voll.api.domain.paciente.DadosCadastroPaciente;
+import med.voll.api.domain.paciente.Paciente;
+import med.voll.api.domain.paciente.PacienteRepository;
+import med.voll.api.domain.usuario.DadosAutenticacao;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.integration.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ControleDeVersaoIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String token;
+
+    private Medico medico;
+
+    private Paciente paciente;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository.deleteAll();
+        usuarioRepository.save(new Usuario(null, "ana.souza@voll.med", passwordEncoder.encode("123456")));
+
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var auth = new HttpEntity<>(new DadosAutenticacao("ana.souza@voll.med", "123456"), headers);
+        var tokenRaw = restTemplate.exchange("/login", HttpMethod.POST, auth, String.class).getBody();
+        Assertions.assertNotNull(tokenRaw);
+        token = tokenRaw.substring(10, tokenRaw.length() - 2);
+
+        medico = medicoRepository.save(new Medico(new DadosCadastroMedico(
+                "Carla Versao", "carla.versao@voll.med", "1199999999",
+                "44321", Especialidade.CARDIOLOGIA, retornaEndereco())));
+        paciente = pacienteRepository.save(new Paciente(new DadosCadastroPaciente(
+                "Paulo Versao", "paulo.versao@voll.med", "11988888888",
+                "321.654.987-00", retornaEndereco())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        medicoRepository.delete(medico);
+        pacienteRepository.delete(paciente);
+    }
+
+    private DadosEndereco retornaEndereco() {
+        return new DadosEndereco(
+                "Rua das Flores", "Bairro Exemplo", "01000000",
+                "São Paulo", "SP", "Apto 123", "123"
+        );
+    }
+
+    @Test
+    void deveResponderNotModifiedQuandoAVersaoDoMedicoNaoMudou() {
+        var primeira = detalharMedico(null);
+        var etag = primeira.getHeaders().getETag();
+        assertThat(primeira.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(etag).isEqualTo("\"" + medico.getId() + "-0\"");
+        assertThat(primeira.getHeaders().getLastModified()).isPositive();
+
+        var segunda = detalharMedico(etag);
+
+        assertThat(segunda.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(segunda.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(segunda.getBody()).isNull();
+    }
+
+    @Test
+    void deveDevolverOMedicoQuandoAVersaoMudou() {
+        var etag = detalharMedico(null).getHeaders().getETag();
+        var atualizacao = atualizarMedico("Carla Versao Nova", etag);
+        assertThat(atualizacao.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(atualizacao.getHeaders().getETag()).isEqualTo("\"" + medico.getId() + "-1\"");
+
+        var response = detalharMedico(etag);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo(atualizacao.getHeaders().getETag());
+        assertThat(response.getBody()).contains("Carla Versao Nova");
+    }
+
+    @Test
+    void deveRecusarAAtualizacaoDoMedicoComIfMatchDesatualizado() {
+        var etag = detalharMedico(null).getHeaders().getETag();
+        assertThat(atualizarMedico("Carla Primeira", etag).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        var response = atualizarMedico("Carla Segunda", etag);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(medicoRepository.findById(medico.getId()).orElseThrow().getNome()).isEqualTo("Carla Primeira");
+    }
+
+    @Test
+    void deveResponderNotModifiedQuandoAVersaoDoPacienteNaoMudou() {
+        var primeira = detalharPaciente(null);
+        var etag = primeira.getHeaders().getETag();
+        assertThat(primeira.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(etag).isNotNull();
+        assertThat(primeira.getHeaders().getLastModified()).isPositive();
+
+        var segunda = detalharPaciente(etag);
+
+        assertThat(segunda.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(segunda.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(segunda.getBody()).isNull();
+    }
+
+    @Test
+    void deveRecusarAAtualizacaoDoPacienteComIfMatchDesatualizado() {
+        var etag = detalharPaciente(null).getHeaders().getETag();
+        var primeira = atualizarPaciente("Paulo Primeiro", etag);
+        assertThat(primeira.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(primeira.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(primeira.getHeaders().getLastModified()).isPositive();
+
+        var response = atualizarPaciente("Paulo Segundo", etag);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(pacienteRepository.findById(paciente.getId()).orElseThrow().getNome()).isEqualTo("Paulo Primeiro");
+
+        var comEtagAtual = atualizarPaciente("Paulo Segundo", primeira.getHeaders().getETag());
+
+        assertThat(comEtagAtual.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(detalharPaciente(primeira.getHeaders().getETag()).getBody()).contains("Paulo Segundo");
+    }
+
+    @Test
+    void deveResponderNotModifiedParaAListagemDePacientesInalterada() {
+        var primeira = restTemplate.exchange("/pacientes?size=5", HttpMethod.GET,
+                new HttpEntity<>(autenticado()), String.class);
+        var etag = primeira.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+
+        var headers = autenticado();
+        headers.setIfNoneMatch(etag);
+        var segunda = restTemplate.exchange("/pacientes?size=5", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(segunda.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(segunda.getBody()).isNull();
+    }
+
+    private ResponseEntity<String> detalharMedico(String ifNoneMatch) {
+        var headers = autenticado();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange("/medicos/" + medico.getId(), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private ResponseEntity<String> detalharPaciente(String ifNoneMatch) {
+        var headers = autenticado();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange("/pacientes/" + paciente.getId(), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private ResponseEntity<String> atualizarMedico(String nome, String ifMatch) {
+        var headers = autenticado();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfMatch(ifMatch);
+        var dados = new DadosAtualizacaoMedico(medico.getId(), nome, null, null);
+        return restTemplate.exchange("/medicos", HttpMethod.PUT, new HttpEntity<>(dados, headers), String.class);
+    }
+
+    private ResponseEntity<String> atualizarPaciente(String nome, String ifMatch) {
+        var headers = autenticado();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfMatch(ifMatch);
+        var dados = new DadosAtualizacaoPaciente(paciente.getId(), nome, null, null);
+        return restTemplate.exchange("/pacientes", HttpMethod.PUT, new HttpEntity<>(dados, headers), String.class);
+    }
+
+    private HttpHeaders autenticado() {
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+
+}
@@ -0,0 +1,206 @@
+package med.voll.api.integration.controller;
+
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.usuario.DadosAutenticacao;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.sql.OrcamentoSqlFilter;
+import med.voll.api.integration.AbstractIntegrationTest;
+import med.voll.api.integration.SqlPorRequisicao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.JsonNode;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Os médicos ficam no Acre e no Amazonas, UFs que os outros testes não usam, para que as facetas, mantidas em
+ * memória para a aplicação inteira, possam ser conferidas com valores exatos.
+ */
+class FiltroMedicosIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private OrcamentoSqlFilter orcamentoSql;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+
+    private final List<Long> medicos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        usuarioRepository.deleteAll();
+        usuarioRepository.save(new Usuario(null, "ana.souza@voll.med", passwordEncoder.encode("123456")));
+
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var auth = new HttpEntity<>(new DadosAutenticacao("ana.souza@voll.med", "123456"), headers);
+        var tokenRaw = restTemplate.exchange("/login", HttpMethod.POST, auth, String.class).getBody();
+        Assertions.assertNotNull(tokenRaw);
+        token = tokenRaw.substring(10, tokenRaw.length() - 2);
+
+        cadastrar("Filtro Um", "71001", Especialidade.CARDIOLOGIA, "AC", "Rio Branco");
+        cadastrar("Filtro Dois", "71002", Especialidade.ORTOPEDIA, "ac", "rio branco");
+        cadastrar("Filtro Tres", "71003", Especialidade.CARDIOLOGIA, "AC", "Xapuri");
+        cadastrar("Filtro Quatro", "71004", Especialidade.CARDIOLOGIA, "AM", "Rio Branco");
+    }
+
+    @AfterEach
+    void tearDown() {
+        // a exclusão pela API publica o evento que tira os médicos das facetas
+        medicos.forEach(id -> restTemplate.exchange("/medicos/" + id, HttpMethod.DELETE,
+                new HttpEntity<>(autenticado()), String.class));
+        medicoRepository.deleteAllById(medicos);
+    }
+
+    @Test
+    void deveFiltrarPorUfECidadeSemDiferenciarMaiusculas() throws Exception {
+        var primeira = get("/medicos/filtro?uf=ac&cidade=RIO BRANCO&tamanho=1");
+
+        assertThat(nomes(primeira)).containsExactly("Filtro Dois");
+        var cursor = primeira.get("proximoCursor").asText();
+
+        var segunda = get("/medicos/filtro?uf=ac&cidade=RIO BRANCO&tamanho=1&cursor=" + cursor);
+
+        assertThat(nomes(segunda)).containsExactly("Filtro Um");
+        assertThat(segunda.get("proximoCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void deveFiltrarPorEspecialidadeEUf() throws Exception {
+        var pagina = get("/medicos/filtro?uf=AC&especialidade=CARDIOLOGIA");
+
+        assertThat(nomes(pagina)).containsExactly("Filtro Tres", "Filtro Um");
+    }
+
+    @Test
+    void deveContarAsFacetasSemDiferenciarMaiusculas() throws Exception {
+        var facetas = get("/medicos/facetas?uf=ac");
+
+        assertThat(facetas.get("total").asLong()).isEqualTo(3);
+        assertThat(facetas.get("especialidades").get("CARDIOLOGIA").asLong()).isEqualTo(2);
+        assertThat(facetas.get("especialidades").get("ORTOPEDIA").asLong()).isEqualTo(1);
+        assertThat(facetas.get("cidades").size()).isEqualTo(2);
+        assertThat(cidade(facetas, 0)).isEqualTo("AC|Rio Branco|2");
+        assertThat(cidade(facetas, 1)).isEqualTo("AC|Xapuri|1");
+    }
+
+    @Test
+    void deveContarCidadesHomonimasSeparadasPorUf() throws Exception {
+        var facetas = get("/medicos/facetas?cidade=rio branco");
+
+        assertThat(facetas.get("total").asLong()).isEqualTo(3);
+        assertThat(facetas.get("ufs").get("AC").asLong()).isEqualTo(2);
+        assertThat(facetas.get("ufs").get("AM").asLong()).isEqualTo(1);
+
+        var cidades = new ArrayList<String>();
+        for (var i = 0; i < facetas.get("cidades").size(); i++) {
+            cidades.add(cidade(facetas, i));
+        }
+        assertThat(cidades).contains("AC|Rio Branco|2", "AM|Rio Branco|1");
+    }
+
+    @Test
+    void deveUsarOIndiceCompletoQuandoTodosOsFiltrosForemInformados() throws Exception {
+        var plano = planoDoFiltro("especialidade=CARDIOLOGIA&uf=AC&cidade=Rio Branco",
+                "CARDIOLOGIA", "AC", "Rio Branco");
+
+        assertThat(plano.get("key")).isEqualTo("ix_medicos_ativo_especialidade_uf_cidade");
+    }
+
+    @Test
+    void deveUsarOIndiceDeLocalizacaoSemEspecialidade() throws Exception {
+        var plano = planoDoFiltro("uf=AC&cidade=Rio Branco", "AC", "Rio Branco");
+
+        assertThat(plano.get("key")).isEqualTo("ix_medicos_ativo_uf_cidade");
+    }
+
+    /**
+     * Faz o request, captura o SQL gerado para o filtro e devolve o EXPLAIN dele com os mesmos valores: os filtros
+     * informados e a primeira página (nome vazio, id 0 e o limite de 11 linhas).
+     */
+    private Map<String, Object> planoDoFiltro(String parametros, Object... filtros) throws Exception {
+        String consulta;
+        try (var sql = new SqlPorRequisicao(orcamentoSql)) {
+            get("/medicos/filtro?" + parametros);
+            consulta = sql.aguardar("GET /medicos/filtro").execucoesPorSql().keySet().stream()
+                    .filter(statement -> statement.contains("from medicos"))
+                    .findFirst()
+                    .orElseThrow();
+        }
+        assertThat(consulta).doesNotContain("is null");
+
+        var valores = new ArrayList<>(List.of(filtros));
+        valores.addAll(List.of("", "", 0L, 11));
+        assertThat(consulta.chars().filter(c -> c == '?').count()).isEqualTo(valores.size());
+
+        var plano = jdbcTemplate.queryForList("explain " + consulta, valores.toArray());
+        return plano.get(0);
+    }
+
+    private void cadastrar(String nome, String crm, Especialidade especialidade, String uf, String cidade) throws Exception {
+        var headers = autenticado();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var endereco = new DadosEndereco("Rua das Flores", "Bairro Exemplo", "69900000", cidade, uf, null, "1");
+        var dados = new DadosCadastroMedico(nome, "medico" + crm + "@voll.med", "6899999999", crm, especialidade, endereco);
+
+        var response = restTemplate.exchange("/medicos", HttpMethod.POST, new HttpEntity<>(dados, headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        medicos.add(new ObjectMapper().readTree(response.getBody()).get("id").asLong());
+    }
+
+    private JsonNode get(String url) throws Exception {
+        var response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(autenticado()), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return new ObjectMapper().readTree(response.getBody());
+    }
+
+    private List<String> nomes(JsonNode pagina) {
+        var nomes = new ArrayList<String>();
+        pagina.get("conteudo").forEach(medico -> nomes.add(medico.get("nome").asText()));
+        return nomes;
+    }
+
+    private String cidade(JsonNode facetas, int indice) {
+        var cidade = facetas.get("cidades").get(indice);
+        return cidade.get("uf").asText() + "|" + cidade.get("cidade").asText() + "|" + cidade.get("quantidade").asLong();
+    }
+
+    private HttpHeaders autenticado() {
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+
+}
@@ -5,7 +5,10 @@ import med.voll.api.domain.medico.*;
 import med.voll.api.domain.usuario.DadosAutenticacao;
 import med.voll.api.domain.usuario.Usuario;
 import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.sql.OrcamentoSqlFilter;
 import med.voll.api.integration.AbstractIntegrationTest;
+import med.voll.api.integration.SqlPorRequisicao;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,6 +38,11 @@ class MedicoControllerIT extends AbstractIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private OrcamentoSqlFilter orcamentoSql;
+
+    private SqlPorRequisicao sql;
+
     private String token;
 
     private final String BASE_URL = "/medicos";
@@ -58,6 +66,12 @@ class MedicoControllerIT extends AbstractIntegrationTest {
         var tokenRaw = response.getBody();
         Assertions.assertNotNull(tokenRaw);
         token = tokenRaw.substring(10, tokenRaw.length() - 2);
+        sql = new SqlPorRequisicao(orcamentoSql);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sql.close();
     }
 
     private DadosEndereco retornaEndereco() {
@@ -326,4 +340,23 @@ class MedicoControllerIT extends AbstractIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         assertThat(response.getBody()).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveListarMedicosComNoMaximoDuasQueries() throws InterruptedException {
+        final var endereco = retornaEndereco();
+        var dadosMedico  =  new DadosCadastroMedico(
+                "Jose da Silva", "jose.medico@voll.med", "1199999999",
+                "53455", Especialidade.DERMATOLOGIA, endereco
+        );
+        medicoRepository.save(new Medico(dadosMedico));
+
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        var response = restTemplate.exchange(BASE_URL, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        var consumo = sql.aguardar("GET " + BASE_URL);
+        assertThat(consumo.statements()).isLessThanOrEqualTo(2);
+        assertThat(consumo.repetidosAoMenos(2)).isEmpty();
+    }
+}
@@ -0,0 +1,162 @@
+package med.voll.api.integration.controller;
+
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.DadosCadastroPaciente;
+import med.voll.api.domain.paciente.Paciente;
+import med.voll.api.domain.paciente.PacienteRepository;
+import med.voll.api.domain.usuario.DadosAutenticacao;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.paginacao.Cursor;
+import med.voll.api.integration.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.JsonNode;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Os cadastros repetem o mesmo nome para que a página termine no meio de um empate e o cursor precise
+ * desempatar pelo id.
+ */
+class PaginacaoPorCursorIT extends AbstractIntegrationTest {
+
+    private static final String NOME_REPETIDO = "Aaa Cursor Repetido";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String token;
+
+    private final List<Medico> medicos = new ArrayList<>();
+
+    private final List<Paciente> pacientes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository.deleteAll();
+        usuarioRepository.save(new Usuario(null, "ana.souza@voll.med", passwordEncoder.encode("123456")));
+
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var auth = new HttpEntity<>(new DadosAutenticacao("ana.souza@voll.med", "123456"), headers);
+        var tokenRaw = restTemplate.exchange("/login", HttpMethod.POST, auth, String.class).getBody();
+        Assertions.assertNotNull(tokenRaw);
+        token = tokenRaw.substring(10, tokenRaw.length() - 2);
+
+        for (var i = 1; i <= 5; i++) {
+            medicos.add(medicoRepository.save(new Medico(new DadosCadastroMedico(
+                    NOME_REPETIDO, "cursor" + i + ".medico@voll.med", "1199999999",
+                    "6600" + i, Especialidade.CARDIOLOGIA, retornaEndereco()))));
+            pacientes.add(pacienteRepository.save(new Paciente(new DadosCadastroPaciente(
+                    NOME_REPETIDO, "cursor" + i + ".paciente@voll.med", "11988888888",
+                    "555.444.3%02d-21".formatted(i), retornaEndereco()))));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        medicoRepository.deleteAll(medicos);
+        pacienteRepository.deleteAll(pacientes);
+    }
+
+    private DadosEndereco retornaEndereco() {
+        return new DadosEndereco(
+                "Rua das Flores", "Bairro Exemplo", "01000000",
+                "São Paulo", "SP", "Apto 123", "123"
+        );
+    }
+
+    @Test
+    void devePercorrerOsMedicosComNomesRepetidosSemPularNemRepetir() throws Exception {
+        var ids = percorrer("/medicos");
+
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(ids.stream().filter(id -> medicos.stream().anyMatch(medico -> medico.getId().equals(id))))
+                .containsExactlyElementsOf(medicos.stream().map(Medico::getId).sorted().toList());
+    }
+
+    @Test
+    void devePercorrerOsPacientesComNomesRepetidosSemPularNemRepetir() throws Exception {
+        var ids = percorrer("/pacientes");
+
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(ids.stream().filter(id -> pacientes.stream().anyMatch(paciente -> paciente.getId().equals(id))))
+                .containsExactlyElementsOf(pacientes.stream().map(Paciente::getId).sorted().toList());
+    }
+
+    @Test
+    void deveContinuarDoMeioDeUmEmpate() throws Exception {
+        var ordenados = medicos.stream().map(Medico::getId).sorted().toList();
+        var cursor = new Cursor(NOME_REPETIDO, ordenados.get(0)).codificar();
+
+        var pagina = get("/medicos?tamanho=2&cursor=" + cursor);
+
+        assertThat(pagina.get("conteudo").get(0).get("id").asLong()).isEqualTo(ordenados.get(1));
+        assertThat(pagina.get("conteudo").get(1).get("id").asLong()).isEqualTo(ordenados.get(2));
+        assertThat(pagina.get("proximoCursor").isNull()).isFalse();
+    }
+
+    @Test
+    void deveRecusarCursorInvalido() {
+        var response = restTemplate.exchange("/medicos?cursor=bm9tZS1zZW0tc2VwYXJhZG9y", HttpMethod.GET,
+                new HttpEntity<>(autenticado()), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Segue o {@code proximoCursor} até a última página, devolvendo os ids na ordem em que foram listados.
+     */
+    private List<Long> percorrer(String url) throws Exception {
+        var ids = new ArrayList<Long>();
+        var cursor = "";
+        do {
+            var pagina = get(url + "?tamanho=2&cursor=" + cursor);
+            pagina.get("conteudo").forEach(item -> ids.add(item.get("id").asLong()));
+            var proximo = pagina.get("proximoCursor");
+            cursor = proximo.isNull() ? null : proximo.asText();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private JsonNode get(String url) throws Exception {
+        var response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(autenticado()), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return new ObjectMapper().readTree(response.getBody());
+    }
+
+    private HttpHeaders autenticado() {
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+
+}
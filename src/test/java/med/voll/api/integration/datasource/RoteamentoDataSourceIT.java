@@ -0,0 +1,236 @@
+package med.voll.api.integration.datasource;
+
+import jakarta.servlet.http.HttpServletResponse;
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.usuario.DadosAutenticacao;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.datasource.ContextoDeRoteamento;
+import med.voll.api.infra.datasource.LeituraPropriaFilter;
+import med.voll.api.infra.datasource.MonitorDeReplica;
+import med.voll.api.infra.security.DadosTokenJWT;
+import med.voll.api.integration.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Usa um segundo MySQL, sem replicação, como réplica: uma tabela criada só nele indica para qual banco cada
+ * transação foi roteada. Por isso o teste liga {@code aceitar-sem-replicacao}, desligada por padrão.
+ */
+class RoteamentoDataSourceIT extends AbstractIntegrationTest {
+
+    private static final MySQLContainer<?> replica;
+
+    static {
+        replica = new MySQLContainer<>("mysql:8.0")
+                .withDatabaseName("vollmed")
+                .withUsername("root")
+                .withPassword("root");
+        replica.start();
+    }
+
+    @DynamicPropertySource
+    static void configurarReplica(DynamicPropertyRegistry registry) {
+        registry.add("api.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("api.datasource.replica.username", replica::getUsername);
+        registry.add("api.datasource.replica.password", replica::getPassword);
+        registry.add("api.datasource.replica.aceitar-sem-replicacao", () -> "true");
+        registry.add("api.datasource.replica.intervalo-verificacao-ms", () -> "3600000");
+        registry.add("api.datasource.replica.janela-leitura-propria", () -> "1s");
+        registry.add("api.cache.listagem-medicos.habilitado", () -> "true");
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("dataSourceReplica")
+    private DataSource dataSourceReplica;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MonitorDeReplica monitor;
+
+    @Autowired
+    private LeituraPropriaFilter leituraPropriaFilter;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final JdbcTemplate administracaoReplica = new JdbcTemplate(
+            new DriverManagerDataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+
+    @BeforeEach
+    void setUp() {
+        administracaoReplica.execute("create table if not exists marcador_replica (id int)");
+        monitor.verificar();
+    }
+
+    @Test
+    void deveLerDaReplicaEmTransacaoSomenteLeitura() {
+        assertThat(emTransacao(true)).isTrue();
+    }
+
+    @Test
+    void deveUsarOPrimarioEmTransacaoDeEscrita() {
+        assertThat(emTransacao(false)).isFalse();
+    }
+
+    @Test
+    void deveUsarOPrimarioQuandoForcadoPeloRequest() {
+        ContextoDeRoteamento.forcarPrimario(true);
+        try {
+            assertThat(emTransacao(true)).isFalse();
+        } finally {
+            ContextoDeRoteamento.limpar();
+        }
+    }
+
+    @Test
+    void naoDeveAceitarBancoSemReplicacaoPorPadrao() {
+        var monitorPadrao = new MonitorDeReplica(dataSourceReplica, Duration.ofSeconds(2), false);
+        monitorPadrao.verificar();
+
+        assertThat(monitorPadrao.isDisponivel()).isFalse();
+    }
+
+    @Test
+    void deveVoltarAoPrimarioComAReplicacaoParada() {
+        // um canal de replicação que nunca foi iniciado aparece com Seconds_Behind_Source nulo
+        administracaoReplica.execute("CHANGE REPLICATION SOURCE TO SOURCE_HOST = '127.0.0.1', SOURCE_PORT = 1");
+        try {
+            monitor.verificar();
+
+            assertThat(monitor.isDisponivel()).isFalse();
+            assertThat(emTransacao(true)).isFalse();
+        } finally {
+            administracaoReplica.execute("RESET REPLICA ALL");
+        }
+
+        monitor.verificar();
+
+        assertThat(monitor.isDisponivel()).isTrue();
+        assertThat(emTransacao(true)).isTrue();
+    }
+
+    @Test
+    void deveLerDoPrimarioDuranteAJanelaDeLeituraPropria() throws Exception {
+        assertThat(requisitar("POST", "10.0.0.1", 201)).isFalse();
+
+        assertThat(requisitar("GET", "10.0.0.1", 200)).isFalse();
+        assertThat(requisitar("GET", "10.0.0.2", 200)).isTrue();
+
+        Thread.sleep(1500);
+
+        assertThat(requisitar("GET", "10.0.0.1", 200)).isTrue();
+    }
+
+    @Test
+    void naoDeveAbrirAJanelaDeLeituraPropriaQuandoAEscritaFalha() throws Exception {
+        assertThat(requisitar("PUT", "10.0.0.3", 400)).isFalse();
+
+        assertThat(requisitar("GET", "10.0.0.3", 200)).isTrue();
+    }
+
+    @Test
+    void deveListarOsMedicosAlteradosParaOutroClienteMesmoComOCacheLigado() {
+        usuarioRepository.deleteAll();
+        usuarioRepository.save(new Usuario(null, "ana.souza@voll.med", passwordEncoder.encode("123456")));
+        usuarioRepository.save(new Usuario(null, "bruno.lima@voll.med", passwordEncoder.encode("123456")));
+        var quemEscreve = autenticar("ana.souza@voll.med");
+        var quemLe = autenticar("bruno.lima@voll.med");
+
+        // a réplica não tem as tabelas da aplicação: uma página carregada dela falharia em vez de vir desatualizada
+        assertThat(listarMedicos(quemLe).getStatusCode()).isIn(HttpStatus.OK, HttpStatus.NO_CONTENT);
+
+        var headers = autenticado(quemEscreve);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var dados = new DadosCadastroMedico("Aaaa Roteamento", "roteamento.medico@voll.med", "1199999999", "55123",
+                Especialidade.CARDIOLOGIA, new DadosEndereco("Rua das Flores", "Bairro Exemplo", "01000000",
+                "São Paulo", "SP", null, "1"));
+        var cadastro = restTemplate.exchange("/medicos", HttpMethod.POST, new HttpEntity<>(dados, headers), String.class);
+        assertThat(cadastro.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        try {
+            var listagem = listarMedicos(quemLe);
+
+            assertThat(listagem.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(listagem.getBody()).contains("Aaaa Roteamento");
+        } finally {
+            // fora de transação somente leitura, para ir ao primário
+            new JdbcTemplate(dataSource).update("delete from medicos where crm = ?", "55123");
+        }
+    }
+
+    private String autenticar(String login) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var response = restTemplate.exchange("/login", HttpMethod.POST,
+                new HttpEntity<>(new DadosAutenticacao(login, "123456"), headers), DadosTokenJWT.class);
+        assertThat(response.getBody()).isNotNull();
+        return response.getBody().token();
+    }
+
+    private ResponseEntity<String> listarMedicos(String token) {
+        return restTemplate.exchange("/medicos?size=50&sort=nome", HttpMethod.GET,
+                new HttpEntity<>(autenticado(token)), String.class);
+    }
+
+    private HttpHeaders autenticado(String token) {
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+
+    private boolean emTransacao(boolean somenteLeitura) {
+        var transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(somenteLeitura);
+        return Boolean.TRUE.equals(transacao.execute(status -> new JdbcTemplate(dataSource).queryForObject("""
+                select count(*) > 0
+                from information_schema.tables
+                where table_schema = database() and table_name = 'marcador_replica'
+                """, Boolean.class)));
+    }
+
+    private boolean requisitar(String metodo, String ip, int status) throws Exception {
+        var request = new MockHttpServletRequest(metodo, "/medicos");
+        request.setRemoteAddr(ip);
+        var leuDaReplica = new AtomicBoolean();
+
+        leituraPropriaFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            leuDaReplica.set(emTransacao(true));
+            ((HttpServletResponse) res).setStatus(status);
+        });
+        return leuDaReplica.get();
+    }
+
+}
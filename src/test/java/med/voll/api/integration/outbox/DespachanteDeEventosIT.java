@@ -0,0 +1,212 @@
+package med.voll.api.integration.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.infra.outbox.DespachanteDeEventos;
+import med.voll.api.infra.outbox.EventoOutbox;
+import med.voll.api.infra.outbox.ManipuladorDeEventoOutbox;
+import med.voll.api.infra.outbox.PublicadorDeEventos;
+import med.voll.api.integration.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * O despacho agendado fica praticamente desligado ({@code api.outbox.intervalo-ms}) para que cada teste
+ * controle quando os lotes são drenados.
+ */
+@TestPropertySource(properties = {"api.outbox.intervalo-ms=3600000", "api.outbox.tamanho-lote=10"})
+class DespachanteDeEventosIT extends AbstractIntegrationTest {
+
+    private static final String TIPO_TESTE = "EventoDeTeste";
+    private static final String TIPO_FALHA = "EventoQueFalha";
+    private static final List<EventoOutbox> recebidos = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class Manipuladores {
+
+        @Bean
+        ManipuladorDeEventoOutbox manipuladorDeTeste() {
+            return manipulador(TIPO_TESTE, recebidos::add);
+        }
+
+        @Bean
+        ManipuladorDeEventoOutbox manipuladorQueFalha() {
+            return manipulador(TIPO_FALHA, evento -> {
+                throw new IllegalStateException("indisponível");
+            });
+        }
+
+        private static ManipuladorDeEventoOutbox manipulador(String tipo, Consumer<EventoOutbox> acao) {
+            return new ManipuladorDeEventoOutbox() {
+                @Override
+                public String tipo() {
+                    return tipo;
+                }
+
+                @Override
+                public void manipular(EventoOutbox evento) {
+                    acao.accept(evento);
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private PublicadorDeEventos publicador;
+
+    @Autowired
+    private DespachanteDeEventos despachante;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from eventos_outbox");
+        recebidos.clear();
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void deveGravarOEventoApenasQuandoATransacaoForConfirmada() {
+        transacao.executeWithoutResult(status -> publicador.publicar("Consulta", 1L, TIPO_TESTE, Map.of("n", 1)));
+        transacao.executeWithoutResult(status -> {
+            publicador.publicar("Consulta", 2L, TIPO_TESTE, Map.of("n", 2));
+            status.setRollbackOnly();
+        });
+
+        assertThat(jdbcTemplate.queryForList("select id_agregado from eventos_outbox", Long.class)).containsExactly(1L);
+    }
+
+    @Test
+    void naoDevePublicarForaDeTransacao() {
+        assertThatThrownBy(() -> publicador.publicar("Consulta", 1L, TIPO_TESTE, Map.of()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void deveEntregarOsEventosDeUmAgregadoEmOrdem() {
+        transacao.executeWithoutResult(status -> {
+            for (var n = 1; n <= 3; n++) {
+                publicador.publicar("Consulta", 1L, TIPO_TESTE, Map.of("n", n));
+            }
+            publicador.publicar("Consulta", 2L, TIPO_TESTE, Map.of("n", 1));
+        });
+
+        despachante.despachar();
+        assertThat(recebidos).extracting(EventoOutbox::idAgregado).containsExactlyInAnyOrder(1L, 2L);
+
+        despachante.despachar();
+        despachante.despachar();
+        assertThat(recebidos).filteredOn(evento -> evento.idAgregado() == 1L)
+                .extracting(evento -> objectMapper.readTree(evento.payload()).get("n").asInt())
+                .containsExactly(1, 2, 3);
+        assertThat(pendentes()).isZero();
+    }
+
+    @Test
+    void deveAdiarComEsperaOEventoQueFalhaEBloquearOsSeguintesDoAgregado() {
+        transacao.executeWithoutResult(status -> {
+            publicador.publicar("Consulta", 1L, TIPO_FALHA, Map.of());
+            publicador.publicar("Consulta", 1L, TIPO_TESTE, Map.of());
+        });
+
+        despachante.despachar();
+
+        assertThat(recebidos).isEmpty();
+        var falha = jdbcTemplate.queryForMap("""
+                select tentativas, ultimo_erro, timestampdiff(microsecond, criado_em, disponivel_em) as espera
+                from eventos_outbox where tipo = ?
+                """, TIPO_FALHA);
+        assertThat(falha.get("tentativas")).isEqualTo(1);
+        assertThat(falha.get("ultimo_erro")).isEqualTo("indisponível");
+        assertThat(((Number) falha.get("espera")).longValue()).isGreaterThanOrEqualTo(1_000_000L);
+        assertThat(pendentes()).isEqualTo(2);
+    }
+
+    @Test
+    void devePularEventosBloqueadosPorOutroDespachante() throws Exception {
+        transacao.executeWithoutResult(status -> {
+            publicador.publicar("Consulta", 1L, TIPO_TESTE, Map.of());
+            publicador.publicar("Consulta", 2L, TIPO_TESTE, Map.of());
+        });
+
+        var bloqueado = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        var outroDespachante = CompletableFuture.runAsync(() -> transacao.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("select id from eventos_outbox where id_agregado = 1 for update");
+            bloqueado.countDown();
+            aguardar(liberar);
+        }));
+
+        assertThat(bloqueado.await(10, TimeUnit.SECONDS)).isTrue();
+        despachante.despachar();
+        assertThat(recebidos).extracting(EventoOutbox::idAgregado).containsExactly(2L);
+
+        liberar.countDown();
+        outroDespachante.get(10, TimeUnit.SECONDS);
+        despachante.despachar();
+        assertThat(recebidos).extracting(EventoOutbox::idAgregado).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void despachantesConcorrentesNaoDevemEntregarOMesmoEventoDuasVezes() throws Exception {
+        transacao.executeWithoutResult(status -> {
+            for (var id = 1L; id <= 50; id++) {
+                publicador.publicar("Consulta", id, TIPO_TESTE, Map.of());
+            }
+        });
+
+        var despachantes = List.of(
+                CompletableFuture.runAsync(despachante::despachar),
+                CompletableFuture.runAsync(despachante::despachar),
+                CompletableFuture.runAsync(despachante::despachar));
+        for (var execucao : despachantes) {
+            execucao.get(30, TimeUnit.SECONDS);
+        }
+
+        var entregasPorAgregado = recebidos.stream()
+                .collect(Collectors.groupingBy(EventoOutbox::idAgregado, Collectors.counting()));
+        assertThat(entregasPorAgregado).hasSize(50);
+        assertThat(entregasPorAgregado.values()).containsOnly(1L);
+        assertThat(pendentes()).isZero();
+    }
+
+    private long pendentes() {
+        return jdbcTemplate.queryForObject("select count(*) from eventos_outbox", Long.class);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
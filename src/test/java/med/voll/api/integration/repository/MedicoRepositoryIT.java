@@ -1,14 +1,19 @@
 package med.voll.api.integration.repository;
 
+import jakarta.persistence.EntityManagerFactory;
 import med.voll.api.domain.endereco.DadosEndereco;
 import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.DadosListagemMedico;
 import med.voll.api.domain.medico.Especialidade;
 import med.voll.api.domain.medico.Medico;
 import med.voll.api.domain.medico.MedicoRepository;
 import med.voll.api.integration.AbstractIntegrationTest;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import static org.assertj.core.api.Assertions.assertThat;
 
 
@@ -17,6 +22,9 @@ class MedicoRepositoryTest extends AbstractIntegrationTest {
     @Autowired
     private MedicoRepository medicoRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private DadosEndereco retornaEndereco() {
         return new DadosEndereco(
                 "Rua das Flores", "Bairro Exemplo", "01000000",
@@ -47,4 +55,34 @@ class MedicoRepositoryTest extends AbstractIntegrationTest {
         assertThat(resultado.getContent()).hasSize(1);
         assertThat(resultado.getContent().get(0).getNome()).isEqualTo("Jose da Silva");
     }
+
+    @Test
+    void deveListarApenasMedicosAtivosSemCarregarEntidades() {
+        var endereco = retornaEndereco();
+        var medicoAtivo = new Medico(new DadosCadastroMedico(
+                "Carlos Pereira", "carlos.medico@voll.med", "3199999999",
+                "53457", Especialidade.ORTOPEDIA, endereco
+        ));
+        var medicoInativo = new Medico(new DadosCadastroMedico(
+                "Beatriz Lima", "beatriz.medico@voll.med", "4199999999",
+                "53458", Especialidade.CARDIOLOGIA, endereco
+        ));
+        medicoInativo.excluir();
+
+        medicoRepository.save(medicoAtivo);
+        medicoRepository.save(medicoInativo);
+        var estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        var resultado = medicoRepository.listarAtivos(PageRequest.of(0, 100, Sort.by("nome")));
+
+        assertThat(resultado.getContent())
+                .extracting(DadosListagemMedico::nome)
+                .contains("Carlos Pereira")
+                .doesNotContain("Beatriz Lima");
+        assertThat(estatisticas.isStatisticsEnabled()).isTrue();
+        assertThat(estatisticas.getQueryExecutionCount()).isPositive();
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+        assertThat(estatisticas.getEntityFetchCount()).isZero();
+    }
 }
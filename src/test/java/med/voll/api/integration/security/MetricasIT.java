@@ -0,0 +1,106 @@
+package med.voll.api.integration.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.servlet.Filter;
+import med.voll.api.domain.usuario.DadosAutenticacao;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.security.DadosTokenJWT;
+import med.voll.api.integration.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "management.endpoints.web.exposure.include=health,prometheus")
+class MetricasIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter filtroDeSeguranca;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository.deleteAll();
+        usuarioRepository.save(new Usuario(null, "ana.souza@voll.med", passwordEncoder.encode("123456")));
+
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var request = new HttpEntity<>(new DadosAutenticacao("ana.souza@voll.med", "123456"), headers);
+        var response = restTemplate.exchange("/login", HttpMethod.POST, request, DadosTokenJWT.class);
+
+        assertThat(response.getBody()).isNotNull();
+        token = response.getBody().token();
+    }
+
+    @Test
+    void deveExporAsMetricasParaOColetorLocalComPercentisPadrao() {
+        restTemplate.getForEntity("/actuator/health", String.class);
+
+        var response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("http_server_requests_seconds_bucket")
+                .contains("quantile=\"0.95\"");
+    }
+
+    @Test
+    void devePublicarPercentisEHistogramaSemConfiguracao() {
+        restTemplate.getForEntity("/actuator/health", String.class);
+
+        var snapshot = registry.get("http.server.requests").tag("uri", "/actuator/health").timer().takeSnapshot();
+
+        assertThat(snapshot.percentileValues()).extracting(ValueAtPercentile::percentile)
+                .containsExactly(0.5, 0.95, 0.99);
+        assertThat(snapshot.histogramCounts()).isNotEmpty();
+    }
+
+    @Test
+    void deveRecusarAsMetricasParaOutrosEnderecosMesmoComToken() throws Exception {
+        assertThat(requisitarMetricas("203.0.113.7", null)).isEqualTo(HttpStatus.FORBIDDEN.value());
+        assertThat(requisitarMetricas("203.0.113.7", token)).isEqualTo(HttpStatus.FORBIDDEN.value());
+        assertThat(requisitarMetricas("127.0.0.1", null)).isEqualTo(HttpStatus.OK.value());
+    }
+
+    private int requisitarMetricas(String enderecoRemoto, String bearer) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        request.setRemoteAddr(enderecoRemoto);
+        if (bearer != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + bearer);
+        }
+        var response = new MockHttpServletResponse();
+
+        filtroDeSeguranca.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+}
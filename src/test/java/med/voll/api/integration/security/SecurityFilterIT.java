@@ -0,0 +1,83 @@
+package med.voll.api.integration.security;
+
+import jakarta.persistence.EntityManagerFactory;
+import med.voll.api.domain.usuario.DadosAutenticacao;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.security.DadosTokenJWT;
+import med.voll.api.integration.AbstractIntegrationTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecurityFilterIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository.deleteAll();
+        usuarioRepository.save(new Usuario(null, "ana.souza@voll.med", passwordEncoder.encode("123456")));
+
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var request = new HttpEntity<>(new DadosAutenticacao("ana.souza@voll.med", "123456"), headers);
+        var response = restTemplate.exchange("/login", HttpMethod.POST, request, DadosTokenJWT.class);
+
+        assertThat(response.getBody()).isNotNull();
+        token = response.getBody().token();
+    }
+
+    @Test
+    void naoDeveConsultarOBancoParaAutenticarORequest() {
+        var estatisticas = estatisticas();
+        estatisticas.clear();
+
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        restTemplate.exchange("/recurso-inexistente", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+        assertThat(estatisticas.getEntityStatistics(Usuario.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void naoDeveCarregarUsuarioAoListarMedicos() {
+        var estatisticas = estatisticas();
+        estatisticas.clear();
+
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        restTemplate.exchange("/medicos", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(estatisticas.getEntityStatistics(Usuario.class.getName()).getLoadCount()).isZero();
+        assertThat(estatisticas.getQueries()).noneMatch(query -> query.contains("Usuario"));
+    }
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+}
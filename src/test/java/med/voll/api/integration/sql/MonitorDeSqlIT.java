@@ -0,0 +1,104 @@
+package med.voll.api.integration.sql;
+
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.paciente.DadosCadastroPaciente;
+import med.voll.api.domain.paciente.Paciente;
+import med.voll.api.domain.paciente.PacienteRepository;
+import med.voll.api.domain.usuario.DadosAutenticacao;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.sql.OrcamentoSqlFilter;
+import med.voll.api.integration.AbstractIntegrationTest;
+import med.voll.api.integration.SqlPorRequisicao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MonitorDeSqlIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private OrcamentoSqlFilter orcamentoSql;
+
+    private SqlPorRequisicao sql;
+
+    private final List<Paciente> pacientes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository.deleteAll();
+        usuarioRepository.save(new Usuario(null, "ana.souza@voll.med", passwordEncoder.encode("123456")));
+        sql = new SqlPorRequisicao(orcamentoSql);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sql.close();
+        pacienteRepository.deleteAll(pacientes);
+    }
+
+    @Test
+    void deveMedirOSqlDaVerificacaoDeSenhaFeitaNoPoolDeLogin() throws Exception {
+        var token = autenticar();
+
+        assertThat(token).isNotBlank();
+        var consumo = sql.aguardar("POST /login");
+        assertThat(consumo.statements()).isPositive();
+        assertThat(consumo.execucoesPorSql().keySet()).anyMatch(chave -> chave.contains("from usuarios"));
+    }
+
+    @Test
+    void deveMedirOSqlDaExportacaoEmStreaming() throws Exception {
+        for (var i = 1; i <= 3; i++) {
+            pacientes.add(pacienteRepository.save(new Paciente(new DadosCadastroPaciente(
+                    "Paciente Monitor " + i, "paciente" + i + ".monitor@voll.med", "11988888888",
+                    "111.222.3%02d-44".formatted(i), retornaEndereco()))));
+        }
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(autenticar());
+        sql.aguardar("POST /login");
+
+        var response = restTemplate.exchange("/pacientes/exportacao", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        var consumo = sql.aguardar("GET /pacientes/exportacao");
+        assertThat(consumo.execucoesPorSql().keySet()).anyMatch(chave -> chave.contains("from pacientes"));
+        assertThat(consumo.linhas()).isGreaterThanOrEqualTo(pacientes.size());
+    }
+
+    private String autenticar() {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var auth = new HttpEntity<>(new DadosAutenticacao("ana.souza@voll.med", "123456"), headers);
+        var tokenRaw = restTemplate.exchange("/login", HttpMethod.POST, auth, String.class).getBody();
+        assertThat(tokenRaw).isNotNull();
+        return tokenRaw.substring(10, tokenRaw.length() - 2);
+    }
+
+    private DadosEndereco retornaEndereco() {
+        return new DadosEndereco(
+                "Rua das Flores", "Bairro Exemplo", "01000000",
+                "São Paulo", "SP", "Apto 123", "123"
+        );
+    }
+}
@@ -0,0 +1,116 @@
+package med.voll.api.unit;
+
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.consulta.EscalaPorEspecialidade;
+import med.voll.api.domain.consulta.HorarioOcupado;
+import med.voll.api.domain.consulta.IndiceDeHorarios;
+import med.voll.api.domain.medico.DadosEspecialidadeMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.MedicoAlteradoEvent;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EscalaPorEspecialidadeUnit {
+
+    private static final LocalDateTime AMANHA_AS_DEZ = LocalDate.now().plusDays(1).atTime(10, 0);
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    private IndiceDeHorarios indice;
+
+    private EscalaPorEspecialidade escala;
+
+    private void iniciar(List<Long> cardiologistas, List<HorarioOcupado> horariosOcupados) {
+        when(medicoRepository.listarEspecialidadesDosAtivos()).thenReturn(cardiologistas.stream()
+                .map(id -> new DadosEspecialidadeMedico(id, Especialidade.CARDIOLOGIA))
+                .toList());
+        when(consultaRepository.buscarHorariosOcupadosAPartirDe(any())).thenReturn(horariosOcupados);
+
+        var indiceReal = new IndiceDeHorarios();
+        ReflectionTestUtils.setField(indiceReal, "repository", consultaRepository);
+        ReflectionTestUtils.invokeMethod(indiceReal, "carregar");
+        indice = spy(indiceReal);
+
+        escala = new EscalaPorEspecialidade();
+        ReflectionTestUtils.setField(escala, "medicoRepository", medicoRepository);
+        ReflectionTestUtils.setField(escala, "consultaRepository", consultaRepository);
+        ReflectionTestUtils.setField(escala, "indiceDeHorarios", indice);
+        ReflectionTestUtils.invokeMethod(escala, "carregar");
+    }
+
+    @Test
+    void devePularMedicosComConsultaCarregadaNaInicializacao() {
+        iniciar(List.of(1L, 2L), List.of(new HorarioOcupado(1L, AMANHA_AS_DEZ)));
+
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ)).contains(2L);
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ)).isEmpty();
+        verify(indice, never()).reservarNaTransacao(eq(1L), any());
+    }
+
+    @Test
+    void deveConsiderarReservasFeitasComOMedicoEscolhido() {
+        iniciar(List.of(1L, 2L), List.of());
+
+        assertThat(indice.reservarNaTransacao(1L, AMANHA_AS_DEZ)).isTrue();
+
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ)).contains(2L);
+        verify(indice, times(1)).reservarNaTransacao(1L, AMANHA_AS_DEZ);
+    }
+
+    @Test
+    void deveVoltarAOferecerOMedicoQuandoOHorarioForLiberado() {
+        iniciar(List.of(1L), List.of());
+
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ)).contains(1L);
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ)).isEmpty();
+
+        indice.liberar(1L, AMANHA_AS_DEZ);
+
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ)).contains(1L);
+    }
+
+    @Test
+    void deveDistribuirAsReservasEntreOsMedicosLivres() {
+        iniciar(List.of(1L, 2L, 3L), List.of());
+
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ)).contains(1L);
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ.plusHours(1))).contains(2L);
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ)).contains(3L);
+    }
+
+    @Test
+    void naoDeveOferecerMedicoInativadoNemDeOutraEspecialidade() {
+        iniciar(List.of(1L, 2L), List.of());
+
+        escala.atualizar(new MedicoAlteradoEvent(1L, "Carla Mendes", "carla@voll.med", "10001",
+                Especialidade.CARDIOLOGIA, "SP", "São Paulo", false));
+
+        assertThat(escala.isAtivo(1L)).isFalse();
+        assertThat(escala.reservarMedicoLivre(Especialidade.DERMATOLOGIA, AMANHA_AS_DEZ)).isEmpty();
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ)).contains(2L);
+        assertThat(escala.reservarMedicoLivre(Especialidade.CARDIOLOGIA, AMANHA_AS_DEZ)).isEmpty();
+    }
+
+}
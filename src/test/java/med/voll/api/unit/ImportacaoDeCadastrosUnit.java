@@ -0,0 +1,147 @@
+package med.voll.api.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import med.voll.api.domain.importacao.DadosErroImportacao;
+import med.voll.api.domain.importacao.DadosRelatorioImportacao;
+import med.voll.api.domain.importacao.FormatoImportacao;
+import med.voll.api.domain.importacao.ImportacaoDeCadastros;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoAlteradoEvent;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.PacienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportacaoDeCadastrosUnit {
+
+    @InjectMocks
+    private ImportacaoDeCadastros importacao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Captor
+    private ArgumentCaptor<List<Medico>> medicosGravados;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importacao, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importacao, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(importacao, "tamanhoLote", 2);
+        ReflectionTestUtils.setField(importacao, "maximoErros", 2);
+    }
+
+    @Test
+    void deveGravarEmLotesDoTamanhoConfigurado() throws Exception {
+        when(medicoRepository.buscarCrmsExistentes(any())).thenReturn(Set.of("10003"));
+
+        var relatorio = importar(IntStream.rangeClosed(1, 5).mapToObj(i -> medico(i, "1000" + i)).toList());
+
+        assertThat(relatorio.processados()).isEqualTo(5);
+        assertThat(relatorio.importados()).isEqualTo(4);
+        assertThat(relatorio.rejeitados()).isEqualTo(1);
+        assertThat(relatorio.erros()).singleElement()
+                .satisfies(erro -> assertThat(erro.linha()).isEqualTo(3));
+
+        verify(medicoRepository, times(3)).buscarCrmsExistentes(any());
+        verify(medicoRepository, times(3)).saveAll(medicosGravados.capture());
+        assertThat(medicosGravados.getAllValues()).extracting(List::size).containsExactly(2, 1, 1);
+        verify(entityManager, times(3)).clear();
+        verify(eventPublisher, times(4)).publishEvent(any(MedicoAlteradoEvent.class));
+    }
+
+    @Test
+    void deveLimitarOsErrosDoRelatorioSemDeixarDeContarOsRejeitados() throws Exception {
+        var linhas = new ArrayList<String>();
+        linhas.add(medico(1, "crm-invalido"));
+        linhas.add("{nao e json");
+        linhas.add(medico(3, "crm-invalido"));
+        linhas.add(medico(4, "10004"));
+        linhas.add(medico(5, "crm-invalido"));
+
+        var relatorio = importar(linhas);
+
+        assertThat(relatorio.processados()).isEqualTo(5);
+        assertThat(relatorio.importados()).isEqualTo(1);
+        assertThat(relatorio.rejeitados()).isEqualTo(4);
+        assertThat(relatorio.erros()).hasSize(2)
+                .extracting(DadosErroImportacao::linha)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void deveRejeitarRegistroNuloContandoOUmaUnicaVez() throws Exception {
+        var relatorio = importar(List.of("null", medico(2, "10002")));
+
+        assertThat(relatorio.processados()).isEqualTo(2);
+        assertThat(relatorio.importados()).isEqualTo(1);
+        assertThat(relatorio.rejeitados()).isEqualTo(1);
+        assertThat(relatorio.erros()).singleElement().satisfies(erro -> {
+            assertThat(erro.linha()).isEqualTo(1);
+            assertThat(erro.mensagem()).isEqualTo("Registro inválido: registro nulo");
+        });
+    }
+
+    @Test
+    void naoDeveGravarQuandoNenhumRegistroForValido() throws Exception {
+        var relatorio = importar(List.of("null", "", "{nao e json"));
+
+        assertThat(relatorio.processados()).isEqualTo(2);
+        assertThat(relatorio.rejeitados()).isEqualTo(2);
+        verify(medicoRepository, never()).saveAll(any());
+    }
+
+    private DadosRelatorioImportacao importar(List<String> linhas) throws Exception {
+        var corpo = linhas.stream().collect(Collectors.joining("\n"));
+        return importacao.importarMedicos(new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8)),
+                FormatoImportacao.NDJSON);
+    }
+
+    private static String medico(int indice, String crm) {
+        return """
+                {"nome":"Medico %d","email":"medico%d.importacao@voll.med","telefone":"1199999999","crm":"%s",\
+                "especialidade":"CARDIOLOGIA","endereco":{"logradouro":"Rua das Flores","bairro":"Bairro Exemplo",\
+                "cep":"01000000","cidade":"São Paulo","uf":"SP","complemento":null,"numero":"1"}}\
+                """.formatted(indice, indice, crm);
+    }
+
+}
@@ -0,0 +1,156 @@
+package med.voll.api.unit;
+
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.consulta.HorarioOcupado;
+import med.voll.api.domain.consulta.IndiceDeHorarios;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_COMMITTED;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_ROLLED_BACK;
+
+@ExtendWith(MockitoExtension.class)
+public class IndiceDeHorariosUnit {
+
+    private static final Long ID_MEDICO = 1L;
+    private static final LocalDateTime AMANHA_AS_DEZ = LocalDate.now().plusDays(1).atTime(10, 0);
+
+    @InjectMocks
+    private IndiceDeHorarios indice;
+
+    @Mock
+    private ConsultaRepository repository;
+
+    @Test
+    void deveReservarOSlotParaUmaUnicaTransacaoConcorrente() throws Exception {
+        var transacoes = 16;
+        var largada = new CountDownLatch(1);
+        var vencedoras = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(transacoes);
+        try {
+            var resultados = new ArrayList<Future<?>>();
+            for (var i = 0; i < transacoes; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    // quem perde a disputa desfaz a própria transação, o que não pode liberar o slot da vencedora
+                    emTransacao(() -> {
+                        var reservou = indice.reservarNaTransacao(ID_MEDICO, AMANHA_AS_DEZ);
+                        if (reservou) {
+                            vencedoras.incrementAndGet();
+                        }
+                        return reservou;
+                    });
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (var resultado : resultados) {
+                resultado.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(vencedoras).hasValue(1);
+        assertThat(indice.isOcupado(ID_MEDICO, AMANHA_AS_DEZ)).isTrue();
+    }
+
+    @Test
+    void deveLiberarOSlotQuandoATransacaoForDesfeita() {
+        var liberados = new CopyOnWriteArrayList<LocalDateTime>();
+        indice.aoLiberar((idMedico, data) -> liberados.add(data));
+
+        emTransacao(() -> {
+            assertThat(indice.reservarNaTransacao(ID_MEDICO, AMANHA_AS_DEZ)).isTrue();
+            return false;
+        });
+
+        assertThat(indice.isOcupado(ID_MEDICO, AMANHA_AS_DEZ)).isFalse();
+        assertThat(liberados).containsExactly(AMANHA_AS_DEZ);
+        assertThat(indice.reservar(ID_MEDICO, AMANHA_AS_DEZ)).isTrue();
+    }
+
+    @Test
+    void deveManterOSlotQuandoATransacaoForConfirmada() {
+        emTransacao(() -> indice.reservarNaTransacao(ID_MEDICO, AMANHA_AS_DEZ));
+
+        assertThat(indice.isOcupado(ID_MEDICO, AMANHA_AS_DEZ)).isTrue();
+        assertThat(indice.reservar(ID_MEDICO, AMANHA_AS_DEZ)).isFalse();
+    }
+
+    @Test
+    void deveLiberarApenasDepoisDoCommit() {
+        indice.reservar(ID_MEDICO, AMANHA_AS_DEZ);
+
+        emTransacao(() -> {
+            indice.liberarNaTransacao(ID_MEDICO, AMANHA_AS_DEZ);
+            assertThat(indice.isOcupado(ID_MEDICO, AMANHA_AS_DEZ)).isTrue();
+            return false;
+        });
+        assertThat(indice.isOcupado(ID_MEDICO, AMANHA_AS_DEZ)).isTrue();
+
+        emTransacao(() -> {
+            indice.liberarNaTransacao(ID_MEDICO, AMANHA_AS_DEZ);
+            return true;
+        });
+        assertThat(indice.isOcupado(ID_MEDICO, AMANHA_AS_DEZ)).isFalse();
+    }
+
+    @Test
+    void deveDescartarOsDiasPassadosNaLimpezaNoturna() {
+        var ontem = LocalDate.now().minusDays(1);
+        var hoje = LocalDate.now();
+        when(repository.buscarHorariosOcupadosAPartirDe(any())).thenReturn(List.of(
+                new HorarioOcupado(ID_MEDICO, hoje.atTime(8, 0)),
+                new HorarioOcupado(ID_MEDICO, AMANHA_AS_DEZ)));
+        ReflectionTestUtils.invokeMethod(indice, "carregar");
+        indice.reservar(ID_MEDICO, ontem.atTime(9, 0));
+        indice.reservar(ID_MEDICO, ontem.atTime(15, 0));
+
+        indice.descartarDiasPassados();
+
+        assertThat(indice.slotsOcupados(ID_MEDICO, ontem)).isZero();
+        assertThat(indice.slotsOcupados(ID_MEDICO, hoje)).isEqualTo(1 << 8);
+        assertThat(indice.isOcupado(ID_MEDICO, AMANHA_AS_DEZ)).isTrue();
+    }
+
+    /**
+     * Simula uma transação na thread atual: a ação devolve se a transação deve ser confirmada ou desfeita.
+     */
+    private void emTransacao(BooleanSupplier acao) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            var confirmar = acao.getAsBoolean();
+            var sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+            if (confirmar) {
+                sincronizacoes.forEach(TransactionSynchronization::afterCommit);
+            }
+            sincronizacoes.forEach(sincronizacao ->
+                    sincronizacao.afterCompletion(confirmar ? STATUS_COMMITTED : STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package med.voll.api.unit;
+
+import med.voll.api.domain.medico.DadosListagemMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.IndiceDeNomesMedicos;
+import med.voll.api.domain.medico.MedicoAlteradoEvent;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+public class IndiceDeNomesMedicosUnit {
+
+    @InjectMocks
+    private IndiceDeNomesMedicos indice;
+
+    @Mock
+    private MedicoRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        indice.atualizar(evento(1L, "João da Silva", Especialidade.CARDIOLOGIA, true));
+        indice.atualizar(evento(2L, "Ana Souza", Especialidade.DERMATOLOGIA, true));
+        indice.atualizar(evento(3L, "Ângela Sá", Especialidade.CARDIOLOGIA, true));
+    }
+
+    private MedicoAlteradoEvent evento(Long id, String nome, Especialidade especialidade, boolean ativo) {
+        return new MedicoAlteradoEvent(id, nome, "medico" + id + "@voll.med", "1000" + id, especialidade, "SP",
+                "São Paulo", ativo);
+    }
+
+    @Test
+    void deveBuscarPorPrefixoIgnorandoAcentos() {
+        assertThat(indice.buscar("joao", null, 10)).extracting(DadosListagemMedico::id).containsExactly(1L);
+        assertThat(indice.buscar("ANGE", null, 10)).extracting(DadosListagemMedico::id).containsExactly(3L);
+        assertThat(indice.buscar("an so", null, 10)).extracting(DadosListagemMedico::id).containsExactly(2L);
+    }
+
+    @Test
+    void deveFiltrarPorEspecialidade() {
+        assertThat(indice.buscar("a", Especialidade.CARDIOLOGIA, 10))
+                .extracting(DadosListagemMedico::id)
+                .containsExactly(3L);
+    }
+
+    @Test
+    void deveEncontrarNomesComErroDeDigitacao() {
+        assertThat(indice.buscar("joao silba", null, 10)).extracting(DadosListagemMedico::id).containsExactly(1L);
+    }
+
+    @Test
+    void deveAcompanharAlteracoesEExclusoes() {
+        indice.atualizar(evento(1L, "João Pereira", Especialidade.CARDIOLOGIA, true));
+        indice.atualizar(evento(2L, "Ana Souza", Especialidade.DERMATOLOGIA, false));
+
+        assertThat(indice.buscar("pereira", null, 10)).extracting(DadosListagemMedico::id).containsExactly(1L);
+        assertThat(indice.buscar("silva", null, 10)).isEmpty();
+        assertThat(indice.buscar("souza", null, 10)).isEmpty();
+    }
+
+}
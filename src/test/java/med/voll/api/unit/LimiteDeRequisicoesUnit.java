@@ -0,0 +1,145 @@
+package med.voll.api.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.infra.security.LimiteDeRequisicoesFilter;
+import med.voll.api.infra.security.LimiteDeRequisicoesFilter.Balde;
+import med.voll.api.infra.security.PropriedadesLimiteDeRequisicoes;
+import med.voll.api.infra.security.PropriedadesLimiteDeRequisicoes.Cota;
+import med.voll.api.infra.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@ExtendWith(MockitoExtension.class)
+public class LimiteDeRequisicoesUnit {
+
+    private static final long UM_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock
+    private TokenService tokenService;
+
+    private LimiteDeRequisicoesFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        var propriedades = new PropriedadesLimiteDeRequisicoes(true, 1000, new Cota(1, Duration.ofMinutes(1)),
+                Map.of(), List.of("127.0.0.0/8", "10.0.0.0/8"));
+        filtro = new LimiteDeRequisicoesFilter();
+        ReflectionTestUtils.setField(filtro, "propriedades", propriedades);
+        ReflectionTestUtils.setField(filtro, "tokenService", tokenService);
+        ReflectionTestUtils.setField(filtro, "registry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(filtro, "inicializar");
+    }
+
+    @Test
+    void baldeDeveReabastecerNaTaxaDaCota() {
+        var balde = new Balde(new Cota(10, Duration.ofSeconds(10)));
+        var inicio = System.nanoTime();
+
+        for (var i = 0; i < 10; i++) {
+            assertThat(balde.consumir(inicio)).isZero();
+        }
+        assertThat(balde.consumir(inicio)).isCloseTo(UM_SEGUNDO, within(10L));
+        assertThat(balde.consumir(inicio + UM_SEGUNDO / 2)).isCloseTo(UM_SEGUNDO / 2, within(10L));
+        assertThat(balde.consumir(inicio + UM_SEGUNDO + 10)).isZero();
+        assertThat(balde.consumir(inicio + UM_SEGUNDO + 10)).isPositive();
+    }
+
+    @Test
+    void baldeNaoDeveAcumularAlemDaCapacidade() {
+        var balde = new Balde(new Cota(3, Duration.ofSeconds(3)));
+        var muitoDepois = System.nanoTime() + TimeUnit.HOURS.toNanos(1);
+
+        for (var i = 0; i < 3; i++) {
+            assertThat(balde.consumir(muitoDepois)).isZero();
+        }
+        assertThat(balde.consumir(muitoDepois)).isPositive();
+    }
+
+    @Test
+    void baldeDeveEntregarCadaTokenUmaUnicaVezSobDisputa() throws Exception {
+        var capacidade = 1000;
+        var threads = 16;
+        var tentativasPorThread = 100;
+        var balde = new Balde(new Cota(capacidade, Duration.ofDays(1)));
+        var agora = System.nanoTime();
+        var largada = new CountDownLatch(1);
+        var aceitas = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var resultados = new ArrayList<Future<?>>();
+            for (var i = 0; i < threads; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    for (var tentativa = 0; tentativa < tentativasPorThread; tentativa++) {
+                        if (balde.consumir(agora) == 0) {
+                            aceitas.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (var resultado : resultados) {
+                resultado.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(aceitas).hasValue(capacidade);
+    }
+
+    @Test
+    void deveIdentificarOClientePeloXForwardedForQuandoVierDeProxyConfiavel() throws Exception {
+        assertThat(requisitar("10.0.0.5", "203.0.113.7, 10.0.0.9")).isEqualTo(HttpStatus.OK.value());
+        assertThat(requisitar("10.0.0.6", "203.0.113.7")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(requisitar("10.0.0.5", "203.0.113.8, 10.0.0.9")).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void deveIgnorarEntradasForjadasAEsquerdaDoPrimeiroEnderecoNaoConfiavel() throws Exception {
+        assertThat(requisitar("10.0.0.5", "198.51.100.1, 203.0.113.7")).isEqualTo(HttpStatus.OK.value());
+        assertThat(requisitar("10.0.0.5", "198.51.100.2, 203.0.113.7")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    void deveIgnorarXForwardedForDeClienteQueNaoEProxy() throws Exception {
+        assertThat(requisitar("198.51.100.1", "203.0.113.7")).isEqualTo(HttpStatus.OK.value());
+        assertThat(requisitar("198.51.100.1", "203.0.113.8")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(requisitar("198.51.100.2", null)).isEqualTo(HttpStatus.OK.value());
+    }
+
+    private int requisitar(String enderecoRemoto, String xForwardedFor) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/medicos");
+        request.setRemoteAddr(enderecoRemoto);
+        if (xForwardedFor != null) {
+            request.addHeader("X-Forwarded-For", xForwardedFor);
+        }
+        var response = new MockHttpServletResponse();
+
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+}
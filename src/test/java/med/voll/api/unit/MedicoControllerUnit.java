@@ -11,6 +11,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -39,6 +40,9 @@ public class MedicoControllerUnit {
     @Mock
     private UriComponentsBuilder uriBuilder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private Medico medico;
 
     private DadosCadastroMedico dados;
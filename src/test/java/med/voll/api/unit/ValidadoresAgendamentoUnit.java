@@ -0,0 +1,111 @@
+package med.voll.api.unit;
+
+import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
+import med.voll.api.domain.consulta.validacoes.ContextoAgendamento;
+import med.voll.api.domain.consulta.validacoes.SituacaoDoAgendamento;
+import med.voll.api.domain.consulta.validacoes.ValidadorAntecedenciaMinima;
+import med.voll.api.domain.consulta.validacoes.ValidadorHorarioDeFuncionamento;
+import med.voll.api.domain.consulta.validacoes.ValidadorMedicoAtivo;
+import med.voll.api.domain.consulta.validacoes.ValidadorPacienteAtivo;
+import med.voll.api.domain.consulta.validacoes.ValidadorPacienteSemOutraConsultaNoDia;
+import med.voll.api.infra.exception.custom.ResourceNotFoundException;
+import med.voll.api.infra.exception.custom.ValidacaoException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ValidadoresAgendamentoUnit {
+
+    private static final LocalDateTime SEGUNDA_AS_DEZ = LocalDateTime.of(2030, 1, 7, 10, 0);
+    private static final SituacaoDoAgendamento SITUACAO_VALIDA = new SituacaoDoAgendamento(true, true, false);
+
+    private final AtomicInteger leituras = new AtomicInteger();
+
+    private ContextoAgendamento contexto(Long idMedico, LocalDateTime data, LocalDateTime agora,
+                                         SituacaoDoAgendamento situacao) {
+        var dados = new DadosAgendamentoConsulta(idMedico, 1L, data, null);
+        return new ContextoAgendamento(dados, agora, () -> {
+            leituras.incrementAndGet();
+            return situacao;
+        });
+    }
+
+    private ContextoAgendamento contexto(SituacaoDoAgendamento situacao) {
+        return contexto(1L, SEGUNDA_AS_DEZ, SEGUNDA_AS_DEZ.minusDays(1), situacao);
+    }
+
+    @Test
+    void horarioDeFuncionamentoDeveRecusarDomingoEHorarioFechado() {
+        var validador = new ValidadorHorarioDeFuncionamento();
+
+        assertThatCode(() -> validador.validar(contexto(SITUACAO_VALIDA))).doesNotThrowAnyException();
+        assertThatThrownBy(() -> validador.validar(contexto(1L, SEGUNDA_AS_DEZ.minusDays(1), SEGUNDA_AS_DEZ.minusDays(2), SITUACAO_VALIDA)))
+                .isInstanceOf(ValidacaoException.class);
+        assertThatThrownBy(() -> validador.validar(contexto(1L, SEGUNDA_AS_DEZ.withHour(19), SEGUNDA_AS_DEZ.minusDays(1), SITUACAO_VALIDA)))
+                .isInstanceOf(ValidacaoException.class);
+        assertThat(leituras).hasValue(0);
+    }
+
+    @Test
+    void antecedenciaMinimaDeveRecusarConsultaMuitoProxima() {
+        var validador = new ValidadorAntecedenciaMinima();
+        ReflectionTestUtils.setField(validador, "antecedenciaMinima", Duration.ofMinutes(30));
+
+        assertThatCode(() -> validador.validar(contexto(1L, SEGUNDA_AS_DEZ, SEGUNDA_AS_DEZ.minusMinutes(30), SITUACAO_VALIDA)))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> validador.validar(contexto(1L, SEGUNDA_AS_DEZ, SEGUNDA_AS_DEZ.minusMinutes(29), SITUACAO_VALIDA)))
+                .isInstanceOf(ValidacaoException.class);
+        assertThat(leituras).hasValue(0);
+    }
+
+    @Test
+    void pacienteAtivoDeveDistinguirInexistenteDeInativo() {
+        var validador = new ValidadorPacienteAtivo();
+
+        assertThatCode(() -> validador.validar(contexto(SITUACAO_VALIDA))).doesNotThrowAnyException();
+        assertThatThrownBy(() -> validador.validar(contexto(new SituacaoDoAgendamento(null, true, false))))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> validador.validar(contexto(new SituacaoDoAgendamento(false, true, false))))
+                .isInstanceOf(ValidacaoException.class);
+    }
+
+    @Test
+    void medicoAtivoDeveSerIgnoradoQuandoOMedicoNaoForEscolhido() {
+        var validador = new ValidadorMedicoAtivo();
+
+        assertThatCode(() -> validador.validar(contexto(null, SEGUNDA_AS_DEZ, SEGUNDA_AS_DEZ.minusDays(1), SITUACAO_VALIDA)))
+                .doesNotThrowAnyException();
+        assertThat(leituras).hasValue(0);
+        assertThatThrownBy(() -> validador.validar(contexto(new SituacaoDoAgendamento(true, null, false))))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> validador.validar(contexto(new SituacaoDoAgendamento(true, false, false))))
+                .isInstanceOf(ValidacaoException.class);
+    }
+
+    @Test
+    void pacienteNaoPodeTerDuasConsultasNoMesmoDia() {
+        var validador = new ValidadorPacienteSemOutraConsultaNoDia();
+
+        assertThatCode(() -> validador.validar(contexto(SITUACAO_VALIDA))).doesNotThrowAnyException();
+        assertThatThrownBy(() -> validador.validar(contexto(new SituacaoDoAgendamento(true, true, true))))
+                .isInstanceOf(ValidacaoException.class);
+    }
+
+    @Test
+    void situacaoDeveSerLidaUmaUnicaVezPorContexto() {
+        var contexto = contexto(SITUACAO_VALIDA);
+
+        new ValidadorPacienteAtivo().validar(contexto);
+        new ValidadorMedicoAtivo().validar(contexto);
+        new ValidadorPacienteSemOutraConsultaNoDia().validar(contexto);
+
+        assertThat(leituras).hasValue(1);
+    }
+}